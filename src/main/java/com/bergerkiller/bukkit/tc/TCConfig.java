@@ -25,6 +25,7 @@ import com.bergerkiller.bukkit.common.utils.MaterialUtil;
 import com.bergerkiller.bukkit.common.utils.MathUtil;
 import com.bergerkiller.bukkit.common.utils.ParseUtil;
 import com.bergerkiller.bukkit.tc.attachments.animation.Animation;
+import com.bergerkiller.bukkit.tc.statements.Statement;
 
 /**
  * Stores all the settings specified in the TrainCarts config.yml.
@@ -101,6 +102,10 @@ public class TCConfig {
     public static boolean trainsCheckSignFacing = true;
     public static int autoSaveInterval = 30 * 20; // autosave every 30 seconds
     public static int attachmentTransformParallelism = -1;
+    public static boolean attachmentTransformSkipUnviewed = false;
+    public static double attachmentFarViewDistance = 64.0;
+    public static int attachmentFarUpdateInterval = 5;
+    public static double minecartTrackingRange = 32.0;
     public static boolean allowExternalTicketImagePaths = false; // Whether images outside of the images subdirectory are allowed
     public static String currencyFormat;
     public static Set<Material> allowedBlockBreakTypes = new HashSet<>();
@@ -397,6 +402,7 @@ public class TCConfig {
             config.set("statementShortcuts.diamond", "i@diamond");
         }
         statementShortcuts.clear().load(config.getNode("statementShortcuts"));
+        Statement.clearCompiledStatements();
 
         //parser shortcuts
         config.setHeader("itemShortcuts", "\nSeveral shortcuts you can use on signs to set the items");
@@ -568,6 +574,25 @@ public class TCConfig {
         } else {
             attachmentTransformParallelism = config.get("attachmentTransformParallelism", -1);
         }
+
+        config.setHeader("attachmentTransformSkipUnviewed", "\nWhether attachment positions and animations are not updated while nobody can see them");
+        config.addHeader("attachmentTransformSkipUnviewed", "They are updated again when a player comes near, or a passenger enters the cart");
+        config.addHeader("attachmentTransformSkipUnviewed", "Carts with attachments that change the world, like lights, are always updated");
+        attachmentTransformSkipUnviewed = config.get("attachmentTransformSkipUnviewed", false);
+
+        // How often attachments of trains only seen from far away are updated
+        config.setHeader("attachmentFarViewDistance", "\nDistance in blocks from a train beyond which all its viewers are considered far away");
+        config.addHeader("attachmentFarViewDistance", "When nobody is closer than this, the train's attachments move less frequently");
+        config.addHeader("attachmentFarViewDistance", "Set to 0 to always update attachments of all trains every tick");
+        attachmentFarViewDistance = config.get("attachmentFarViewDistance", 64.0);
+
+        config.setHeader("attachmentFarUpdateInterval", "\nInterval in ticks at which attachment movement is sent for trains only seen from far away");
+        attachmentFarUpdateInterval = config.get("attachmentFarUpdateInterval", 5);
+
+        config.setHeader("minecartTrackingRange", "\nDistance in blocks up to which players are sent minecarts by the server");
+        config.addHeader("minecartTrackingRange", "Should match the minecart entity tracking range set in spigot.yml");
+        config.addHeader("minecartTrackingRange", "Sounds of minecarts that can be heard further away than this are played for all nearby players");
+        minecartTrackingRange = config.get("minecartTrackingRange", 32.0);
     }
 
     public static void putParsers(String key, ItemParser[] parsersArr) {
@@ -17,6 +17,7 @@ import com.bergerkiller.bukkit.common.wrappers.HumanHand;
 import com.bergerkiller.bukkit.tc.attachments.FakePlayerSpawner;
 import com.bergerkiller.bukkit.tc.attachments.control.light.LightAPIController;
 import com.bergerkiller.bukkit.tc.attachments.ui.AttachmentEditor;
+import com.bergerkiller.bukkit.tc.cache.RailPieceCache;
 import com.bergerkiller.bukkit.tc.cache.RailSignCache;
 import com.bergerkiller.bukkit.tc.controller.MinecartGroup;
 import com.bergerkiller.bukkit.tc.controller.MinecartGroupStore;
@@ -34,6 +35,7 @@ import com.bergerkiller.bukkit.tc.signactions.SignAction;
 import com.bergerkiller.bukkit.tc.storage.OfflineGroupManager;
 import com.bergerkiller.bukkit.tc.tickets.TicketStore;
 import com.bergerkiller.bukkit.tc.utils.TrackMap;
+import com.bergerkiller.bukkit.tc.utils.TransferSignUtil;
 import com.bergerkiller.generated.net.minecraft.world.entity.EntityHandle;
 
 import static com.bergerkiller.bukkit.common.utils.MaterialUtil.getMaterial;
@@ -806,6 +808,7 @@ public class TCListener implements Listener {
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBlockBreak(BlockBreakEvent event) {
+        TransferSignUtil.notifyBlockChange(event.getBlock());
         if (MaterialUtil.ISSIGN.get(event.getBlock())) {
             SignAction.handleDestroy(new SignActionEvent(event.getBlock()));
         } else if (MaterialUtil.ISRAILS.get(event.getBlock())) {
@@ -818,6 +821,7 @@ public class TCListener implements Listener {
      */
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBlockPlace(BlockPlaceEvent event) {
+        TransferSignUtil.notifyBlockChange(event.getBlockPlaced());
         RailType railType = RailType.getType(event.getBlockPlaced());
         if (railType != RailType.NONE) {
             final Block placed = event.getBlockPlaced();
@@ -825,6 +829,7 @@ public class TCListener implements Listener {
                 public void run() {
                     RailType railType = RailType.getType(placed);
                     if (railType != RailType.NONE) {
+                        RailPieceCache.notifyTrackChange(placed);
                         railType.onBlockPlaced(placed);
                         BlockUtil.applyPhysics(placed, placed.getType());
                     }
@@ -841,6 +846,8 @@ public class TCListener implements Listener {
         MinecartGroupStore.notifyPhysicsChange();
         RailType railType = RailType.getType(event.getBlock());
         if (railType != RailType.NONE) {
+            RailPieceCache.notifyTrackChange(event.getBlock());
+
             // First check that the rails are supported as they are
             // If not, it will be destroyed either by onBlockPhysics or Vanilla physics
             if (!railType.isRailsSupported(event.getBlock())) {
@@ -995,6 +1002,7 @@ public class TCListener implements Listener {
      * @param railsBlock that is broken
      */
     public void onRailsBreak(Block railsBlock) {
+        RailPieceCache.removeAtPosition(railsBlock);
         MinecartMember<?> mm = MinecartMemberStore.getAt(railsBlock);
         if (mm != null) {
             mm.getGroup().getSignTracker().updatePosition();
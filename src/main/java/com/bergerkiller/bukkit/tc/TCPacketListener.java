@@ -1,6 +1,5 @@
 package com.bergerkiller.bukkit.tc;
 
-import com.bergerkiller.bukkit.common.collections.ImplicitlySharedSet;
 import com.bergerkiller.bukkit.common.conversion.type.HandleConversion;
 import com.bergerkiller.bukkit.common.events.PacketReceiveEvent;
 import com.bergerkiller.bukkit.common.events.PacketSendEvent;
@@ -10,9 +9,8 @@ import com.bergerkiller.bukkit.common.protocol.PacketType;
 import com.bergerkiller.bukkit.common.utils.CommonUtil;
 import com.bergerkiller.bukkit.common.utils.WorldUtil;
 import com.bergerkiller.bukkit.common.wrappers.HumanHand;
-import com.bergerkiller.bukkit.tc.controller.MinecartGroup;
-import com.bergerkiller.bukkit.tc.controller.MinecartGroupStore;
 import com.bergerkiller.bukkit.tc.controller.MinecartMember;
+import com.bergerkiller.bukkit.tc.controller.components.AttachmentControllerMember;
 import com.bergerkiller.generated.net.minecraft.network.protocol.game.PacketPlayInUseEntityHandle;
 import com.bergerkiller.generated.net.minecraft.world.EnumHandHandle;
 import com.bergerkiller.generated.net.minecraft.world.entity.player.EntityHumanHandle;
@@ -91,60 +89,48 @@ public class TCPacketListener implements PacketListener {
                 return;
             }
 
-            // Find all Minecart entities that are nearby the player
+            // Find the cart that uses this Entity Id in its attachments
             Location eyeLoc = event.getPlayer().getEyeLocation();
-            try (ImplicitlySharedSet<MinecartGroup> groups = MinecartGroupStore.getGroups().clone()) {
-                for (MinecartGroup group : groups) {
-                    if (group.getWorld() != eyeLoc.getWorld()) {
-                        continue;
-                    }
-
-                    for (MinecartMember<?> member : group) {
-                        if (!member.getAttachments().isViewer(event.getPlayer())) {
-                            continue; // If not visible, don't loop through the model to check this
-                        }
-                        if (!member.getAttachments().isAttachment(entityId)) {
-                            continue; // Id is not used in the model
-                        }
-
-                        // UseAction INTERACT_AT fires for all entities, including Armorstands
-                        // The INTERACT only fires for interactable entities, like Minecarts
-                        // Since INTERACT_AT also fires for Minecarts, it is easier to ignore INTERACT
-                        // and do all handling using INTERACT_AT.
-                        if (packet_use.isInteract()) {
-                            event.setCancelled(true);
-                            return;
-                        }
-
-                        // If nearby the player, allow standard interaction. Otherwise, do all of this ourselves.
-                        // Minecraft enforces a 3 block radius when not having line of sight, assume this limit.
-                        if (member.getEntity().loc.distanceSquared(eyeLoc) < (3.0 * 3.0)) {
-                            
-                            // For some reason this is needed, though.
-                            if (packet_use.isInteractAt()) {
-                                HumanHand hand = packet_use.getInteractHand(event.getPlayer());
-                                packet_use.setInteract(event.getPlayer(), hand);
-                            }
-
-                            // Rewrite the packet
-                            packet_use.setUsedEntityId(member.getEntity().getEntityId());
-                            return; // Allow
-                        }
-
-                        // Cancel the interaction and handle this ourselves.
-                        if (packet_use.isInteract() || packet_use.isInteractAt()) {
-                            // Get hand used for interaction
-                            HumanHand hand = packet_use.getInteractHand(event.getPlayer());
-                            fakeInteraction(member, event.getPlayer(), hand);
-                            event.setCancelled(true);
-                        } else if (packet_use.isAttack()) {
-                            // Attack
-                            fakeAttack(member, event.getPlayer());
-                            event.setCancelled(true);
-                        }
-                        return;
-                    }
+            AttachmentControllerMember controller = TrainCarts.plugin.getAttachmentEntityIdMap().get(eyeLoc.getWorld(), entityId);
+            if (controller == null || !controller.isViewer(event.getPlayer())) {
+                return; // Not an attachment, or not visible to the player
+            }
+            MinecartMember<?> member = controller.getMember();
+
+            // UseAction INTERACT_AT fires for all entities, including Armorstands
+            // The INTERACT only fires for interactable entities, like Minecarts
+            // Since INTERACT_AT also fires for Minecarts, it is easier to ignore INTERACT
+            // and do all handling using INTERACT_AT.
+            if (packet_use.isInteract()) {
+                event.setCancelled(true);
+                return;
+            }
+
+            // If nearby the player, allow standard interaction. Otherwise, do all of this ourselves.
+            // Minecraft enforces a 3 block radius when not having line of sight, assume this limit.
+            if (member.getEntity().loc.distanceSquared(eyeLoc) < (3.0 * 3.0)) {
+                
+                // For some reason this is needed, though.
+                if (packet_use.isInteractAt()) {
+                    HumanHand hand = packet_use.getInteractHand(event.getPlayer());
+                    packet_use.setInteract(event.getPlayer(), hand);
                 }
+
+                // Rewrite the packet
+                packet_use.setUsedEntityId(member.getEntity().getEntityId());
+                return; // Allow
+            }
+
+            // Cancel the interaction and handle this ourselves.
+            if (packet_use.isInteract() || packet_use.isInteractAt()) {
+                // Get hand used for interaction
+                HumanHand hand = packet_use.getInteractHand(event.getPlayer());
+                fakeInteraction(member, event.getPlayer(), hand);
+                event.setCancelled(true);
+            } else if (packet_use.isAttack()) {
+                // Attack
+                fakeAttack(member, event.getPlayer());
+                event.setCancelled(true);
             }
         }
     }
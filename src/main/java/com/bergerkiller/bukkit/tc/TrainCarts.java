@@ -18,7 +18,9 @@ import com.bergerkiller.bukkit.tc.attachments.config.AttachmentModelStore;
 import com.bergerkiller.bukkit.tc.attachments.control.CartAttachment;
 import com.bergerkiller.bukkit.tc.attachments.control.CartAttachmentLight;
 import com.bergerkiller.bukkit.tc.attachments.control.GlowColorTeamProvider;
+import com.bergerkiller.bukkit.tc.attachments.control.AttachmentEntityIdMap;
 import com.bergerkiller.bukkit.tc.attachments.control.SeatAttachmentMap;
+import com.bergerkiller.bukkit.tc.cache.MemberChunkCache;
 import com.bergerkiller.bukkit.tc.cache.RailMemberCache;
 import com.bergerkiller.bukkit.tc.cache.RailSignCache;
 import com.bergerkiller.bukkit.tc.chest.TrainChestListener;
@@ -49,6 +51,7 @@ import com.bergerkiller.bukkit.tc.statements.Statement;
 import com.bergerkiller.bukkit.tc.storage.OfflineGroup;
 import com.bergerkiller.bukkit.tc.storage.OfflineGroupManager;
 import com.bergerkiller.bukkit.tc.tickets.TicketStore;
+import com.bergerkiller.bukkit.tc.utils.AsyncDataWriter;
 import com.bergerkiller.mountiplex.conversion.Conversion;
 
 import me.m56738.smoothcoasters.api.SmoothCoastersAPI;
@@ -87,6 +90,7 @@ public class TrainCarts extends PluginBase {
     private SpawnSignManager spawnSignManager;
     private SavedTrainPropertiesStore savedTrainsStore;
     private SeatAttachmentMap seatAttachmentMap;
+    private final AttachmentEntityIdMap attachmentEntityIdMap = new AttachmentEntityIdMap();
     private RedstoneTracker redstoneTracker;
     private GlowColorTeamProvider glowColorTeamProvider;
     private PathProvider pathProvider;
@@ -128,6 +132,16 @@ public class TrainCarts extends PluginBase {
         return this.seatAttachmentMap;
     }
 
+    /**
+     * Gets a mapping of the Entity Ids used by attachments to the attachment controller
+     * of the cart they belong to.
+     *
+     * @return attachment entity id map
+     */
+    public AttachmentEntityIdMap getAttachmentEntityIdMap() {
+        return this.attachmentEntityIdMap;
+    }
+
     /**
      * Gets the program component responsible for automatically spawning trains from spawn signs periodically.
      * 
@@ -754,6 +768,7 @@ public class TrainCarts extends PluginBase {
 
         //save all data to disk (autosave=false)
         save(false);
+        AsyncDataWriter.shutdown();
 
         //Disable spawn manager
         spawnSignManager.deinit();
@@ -775,6 +790,7 @@ public class TrainCarts extends PluginBase {
         RailPieceCache.reset();
         RailSignCache.reset();
         RailMemberCache.reset();
+        MemberChunkCache.reset();
 
         this.glowColorTeamProvider.disable();
         this.glowColorTeamProvider = null;
@@ -8,6 +8,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -500,6 +501,28 @@ public class Util {
         return false;
     }
 
+    /**
+     * Gets a view of the entries of a sorted map whose keys start with a prefix.
+     * Because the keys are sorted, this does not check every key in the map.
+     *
+     * @param map Sorted map to look in
+     * @param prefix Text the keys must start with
+     * @return view of the entries with keys starting with the prefix
+     */
+    public static <V> NavigableMap<String, V> getPrefixSubMap(NavigableMap<String, V> map, String prefix) {
+        // The first text after all text starting with the prefix is the prefix with the
+        // last character incremented. Trailing characters that can not be incremented are dropped.
+        int len = prefix.length();
+        while (len > 0 && prefix.charAt(len - 1) == Character.MAX_VALUE) {
+            len--;
+        }
+        if (len == 0) {
+            return prefix.isEmpty() ? map : map.tailMap(prefix, true);
+        }
+        String end = prefix.substring(0, len - 1) + (char) (prefix.charAt(len - 1) + 1);
+        return map.subMap(prefix, true, end, false);
+    }
+
     public static boolean evaluate(double value, String text) {
         if (text == null || text.isEmpty()) {
             return false; // no valid input
@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 import org.bukkit.entity.Player;
 
@@ -426,6 +427,16 @@ public interface Attachment {
      */
     default boolean containsEntityId(int entityId) { return false; }
 
+    /**
+     * Reports all the Entity Ids this attachment currently uses to display its
+     * contents in the world. Should report the same Entity Ids for which
+     * {@link #containsEntityId(int)} returns true. Is used to index
+     * attachments by Entity Id after they are attached.
+     * 
+     * @param consumer Consumer to which all used Entity Ids are reported
+     */
+    default void collectEntityIds(IntConsumer consumer) {}
+
     /**
      * Starts a named animation for this attachment and all child attachments
      * recursively. If the animation exists in this attachments or one of its
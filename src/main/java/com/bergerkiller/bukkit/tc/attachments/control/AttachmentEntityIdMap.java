@@ -0,0 +1,80 @@
+package com.bergerkiller.bukkit.tc.attachments.control;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.bukkit.World;
+
+import com.bergerkiller.bukkit.common.wrappers.IntHashMap;
+import com.bergerkiller.bukkit.tc.controller.components.AttachmentControllerMember;
+
+/**
+ * Maps the Entity Ids of (virtual) entities used by attachments to the
+ * attachment controller of the member that owns them. Mappings are stored
+ * per world, and a world is forgotten once no more Entity Ids are registered
+ * in it. Is used to quickly find the cart a player interacted with when
+ * clicking on an attachment, without having to look through every attachment
+ * of every train.<br>
+ * <br>
+ * Can be safely accessed from the network thread.
+ */
+public class AttachmentEntityIdMap {
+    private final Map<World, IntHashMap<AttachmentControllerMember>> _worlds = new IdentityHashMap<>();
+
+    /**
+     * Gets the attachment controller that owns an attachment using a particular Entity Id
+     *
+     * @param world World the entity is in
+     * @param entityId Entity Id of the attachment entity
+     * @return attachment controller using this Entity Id, or null if none does
+     */
+    public synchronized AttachmentControllerMember get(World world, int entityId) {
+        IntHashMap<AttachmentControllerMember> map = this._worlds.get(world);
+        return (map == null) ? null : map.get(entityId);
+    }
+
+    /**
+     * Stores the Entity Ids used by an attachment controller
+     *
+     * @param world World the attachment controller is in
+     * @param entityIds Entity Ids used by the attachments of the controller
+     * @param controller Attachment controller
+     */
+    public synchronized void register(World world, int[] entityIds, AttachmentControllerMember controller) {
+        if (entityIds.length == 0) {
+            return;
+        }
+        IntHashMap<AttachmentControllerMember> map = this._worlds.get(world);
+        if (map == null) {
+            map = new IntHashMap<AttachmentControllerMember>();
+            this._worlds.put(world, map);
+        }
+        for (int entityId : entityIds) {
+            map.put(entityId, controller);
+        }
+    }
+
+    /**
+     * Removes Entity Ids previously registered using {@link #register(World, int[], AttachmentControllerMember)}.
+     * Entity Ids that have since been claimed by a different attachment controller are left alone.
+     *
+     * @param world World the attachment controller was registered in
+     * @param entityIds Entity Ids that were registered
+     * @param controller Attachment controller the Entity Ids were registered for
+     */
+    public synchronized void unregister(World world, int[] entityIds, AttachmentControllerMember controller) {
+        IntHashMap<AttachmentControllerMember> map = this._worlds.get(world);
+        if (map == null) {
+            return;
+        }
+        for (int entityId : entityIds) {
+            AttachmentControllerMember removed = map.remove(entityId);
+            if (removed != null && removed != controller) {
+                map.put(entityId, removed); // undo
+            }
+        }
+        if (map.size() == 0) {
+            this._worlds.remove(world); // Do not keep unloaded worlds around
+        }
+    }
+}
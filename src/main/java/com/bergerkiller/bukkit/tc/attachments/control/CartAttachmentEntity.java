@@ -2,6 +2,8 @@ package com.bergerkiller.bukkit.tc.attachments.control;
 
 import static com.bergerkiller.bukkit.common.utils.MaterialUtil.getMaterial;
 
+import java.util.function.IntConsumer;
+
 import org.bukkit.Material;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
@@ -306,6 +308,16 @@ public class CartAttachmentEntity extends CartAttachment {
                (this.actual != null && this.actual.getEntityId() == entityId);
     }
 
+    @Override
+    public void collectEntityIds(IntConsumer consumer) {
+        if (this.entity != null) {
+            consumer.accept(this.entity.getEntityId());
+        }
+        if (this.actual != null) {
+            consumer.accept(this.actual.getEntityId());
+        }
+    }
+
     @Override
     public int getMountEntityId() {
         if (this.entity.isMountable()) {
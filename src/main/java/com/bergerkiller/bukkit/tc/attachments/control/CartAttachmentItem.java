@@ -2,6 +2,8 @@ package com.bergerkiller.bukkit.tc.attachments.control;
 
 import static com.bergerkiller.bukkit.common.utils.MaterialUtil.getMaterial;
 
+import java.util.function.IntConsumer;
+
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.EntityType;
@@ -133,6 +135,13 @@ public class CartAttachmentItem extends CartAttachment {
         return this.entity != null && this.entity.getEntityId() == entityId;
     }
 
+    @Override
+    public void collectEntityIds(IntConsumer consumer) {
+        if (this.entity != null) {
+            consumer.accept(this.entity.getEntityId());
+        }
+    }
+
     @Override
     public int getMountEntityId() {
         return -1;
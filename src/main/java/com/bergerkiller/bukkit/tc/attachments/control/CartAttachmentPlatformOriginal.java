@@ -1,5 +1,7 @@
 package com.bergerkiller.bukkit.tc.attachments.control;
 
+import java.util.function.IntConsumer;
+
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.util.Vector;
@@ -64,6 +66,13 @@ public class CartAttachmentPlatformOriginal extends CartAttachment {
         return this.entity != null && this.entity.getEntityId() == entityId;
     }
 
+    @Override
+    public void collectEntityIds(IntConsumer consumer) {
+        if (this.entity != null) {
+            consumer.accept(this.entity.getEntityId());
+        }
+    }
+
     @Override
     public int getMountEntityId() {
         if (this.entity.isMountable()) {
@@ -1,5 +1,7 @@
 package com.bergerkiller.bukkit.tc.attachments.control;
 
+import java.util.function.IntConsumer;
+
 import com.bergerkiller.bukkit.common.config.ConfigurationNode;
 import com.bergerkiller.bukkit.common.map.MapEventPropagation;
 import com.bergerkiller.bukkit.common.map.MapFont;
@@ -107,6 +109,13 @@ public class CartAttachmentText extends CartAttachment {
         return this.entity != null && this.entity.getEntityId() == entityId;
     }
 
+    @Override
+    public void collectEntityIds(IntConsumer consumer) {
+        if (this.entity != null) {
+            consumer.accept(this.entity.getEntityId());
+        }
+    }
+
     @Override
     public int getMountEntityId() {
         return this.entity.getEntityId();
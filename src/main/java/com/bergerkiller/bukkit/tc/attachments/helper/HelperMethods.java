@@ -2,6 +2,7 @@ package com.bergerkiller.bukkit.tc.attachments.helper;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.function.IntConsumer;
 
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
@@ -11,6 +12,7 @@ import com.bergerkiller.bukkit.tc.TCConfig;
 import com.bergerkiller.bukkit.tc.attachments.animation.Animation;
 import com.bergerkiller.bukkit.tc.attachments.animation.AnimationOptions;
 import com.bergerkiller.bukkit.tc.attachments.api.Attachment;
+import com.bergerkiller.bukkit.tc.attachments.control.CartAttachmentLight;
 
 /**
  * Just some helper methods to keep the API clean
@@ -164,6 +166,26 @@ public class HelperMethods {
         attachment.getInternalState().reset();
     }
 
+    /**
+     * Checks whether an attachment, or one of its children, changes the world itself
+     * in a way all players can see, such as a light. These attachments must be moved
+     * even while no player is viewing the cart.
+     *
+     * @param attachment Attachment to check
+     * @return True if the attachment or a child has an effect on the world
+     */
+    public static boolean hasWorldEffectsRecursive(Attachment attachment) {
+        if (attachment instanceof CartAttachmentLight) {
+            return true;
+        }
+        for (Attachment child : attachment.getChildren()) {
+            if (hasWorldEffectsRecursive(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static Attachment findAttachmentWithEntityId(Attachment root, int entityId) {
         if (root.containsEntityId(entityId)) {
             return root;
@@ -178,6 +200,13 @@ public class HelperMethods {
         }
     }
 
+    public static void collectEntityIdsRecursive(Attachment attachment, IntConsumer consumer) {
+        attachment.collectEntityIds(consumer);
+        for (Attachment child : attachment.getChildren()) {
+            collectEntityIdsRecursive(child, consumer);
+        }
+    }
+
     public static boolean playAnimationRecursive(Attachment attachment, AnimationOptions options) {
         if (playStoredAnimationRecursive(attachment, options)) {
             return true;
@@ -0,0 +1,156 @@
+package com.bergerkiller.bukkit.tc.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import com.bergerkiller.bukkit.common.entity.type.CommonMinecart;
+import com.bergerkiller.bukkit.common.utils.MathUtil;
+import com.bergerkiller.bukkit.common.wrappers.LongHashMap;
+import com.bergerkiller.bukkit.tc.controller.MinecartMember;
+
+/**
+ * Cache that tracks in what chunk every loaded minecart is, allowing for quick
+ * retrieval of the minecarts near a position without iterating all trains or all
+ * nearby entities. Members are registered when they are added to a group, and their
+ * positions are refreshed every time a train updates the chunks it occupies, so the
+ * chunk a member is registered in can lag behind by up to a tick.
+ * Queries therefore always check the actual position of the members found.
+ */
+public class MemberChunkCache {
+    private static final Map<World, LongHashMap<List<MinecartMember<?>>>> membersByChunk = new HashMap<>();
+    private static final Map<MinecartMember<?>, Entry> entries = new IdentityHashMap<>();
+
+    /**
+     * Wipes all members stored in the cache
+     */
+    public static void reset() {
+        membersByChunk.clear();
+        entries.clear();
+    }
+
+    /**
+     * Refreshes the chunk a member is registered in, using its current position
+     *
+     * @param member
+     */
+    public static void update(MinecartMember<?> member) {
+        CommonMinecart<?> entity = member.getEntity();
+        if (entity == null) {
+            return;
+        }
+        World world = entity.getWorld();
+        long key = MathUtil.longHashToLong(entity.loc.x.chunk(), entity.loc.z.chunk());
+        Entry entry = entries.get(member);
+        if (entry != null) {
+            if (entry.world == world && entry.key == key) {
+                return; // Unchanged
+            }
+            removeFromChunk(member, entry);
+            entry.world = world;
+            entry.key = key;
+        } else {
+            entry = new Entry(world, key);
+            entries.put(member, entry);
+        }
+
+        LongHashMap<List<MinecartMember<?>>> worldMembers = membersByChunk.get(world);
+        if (worldMembers == null) {
+            worldMembers = new LongHashMap<List<MinecartMember<?>>>();
+            membersByChunk.put(world, worldMembers);
+        }
+        List<MinecartMember<?>> chunkMembers = worldMembers.get(key);
+        if (chunkMembers == null) {
+            chunkMembers = new ArrayList<MinecartMember<?>>(2);
+            worldMembers.put(key, chunkMembers);
+        }
+        chunkMembers.add(member);
+    }
+
+    /**
+     * Removes a member from the cache. Should be called when a member is removed
+     * from its group, or when the group unloads.
+     *
+     * @param member
+     */
+    public static void remove(MinecartMember<?> member) {
+        Entry entry = entries.remove(member);
+        if (entry != null) {
+            removeFromChunk(member, entry);
+        }
+    }
+
+    private static void removeFromChunk(MinecartMember<?> member, Entry entry) {
+        LongHashMap<List<MinecartMember<?>>> worldMembers = membersByChunk.get(entry.world);
+        if (worldMembers == null) {
+            return;
+        }
+        List<MinecartMember<?>> chunkMembers = worldMembers.get(entry.key);
+        if (chunkMembers != null && chunkMembers.remove(member) && chunkMembers.isEmpty()) {
+            worldMembers.remove(entry.key);
+            if (worldMembers.size() == 0) {
+                membersByChunk.remove(entry.world);
+            }
+        }
+    }
+
+    /**
+     * Finds all minecarts within a radius of a position
+     *
+     * @param location Center position
+     * @param radius Radius around the position to look
+     * @return members within the radius, in no particular order
+     */
+    public static List<MinecartMember<?>> findNear(Location location, double radius) {
+        final double radiusSquared = radius * radius;
+        List<MinecartMember<?>> result = new ArrayList<MinecartMember<?>>();
+        forEachInChunks(location.getWorld(),
+                location.getX() - radius, location.getZ() - radius,
+                location.getX() + radius, location.getZ() + radius,
+                member -> {
+                    if (member.getEntity().loc.distanceSquared(location) <= radiusSquared) {
+                        result.add(member);
+                    }
+                });
+        return result;
+    }
+
+    private static void forEachInChunks(World world, double minX, double minZ, double maxX, double maxZ, Consumer<MinecartMember<?>> action) {
+        LongHashMap<List<MinecartMember<?>>> worldMembers = membersByChunk.get(world);
+        if (worldMembers == null) {
+            return;
+        }
+
+        // Members can be registered one chunk away from where they are now
+        int cx_min = (MathUtil.floor(minX) >> 4) - 1;
+        int cx_max = (MathUtil.floor(maxX) >> 4) + 1;
+        int cz_min = (MathUtil.floor(minZ) >> 4) - 1;
+        int cz_max = (MathUtil.floor(maxZ) >> 4) + 1;
+        for (int cx = cx_min; cx <= cx_max; cx++) {
+            for (int cz = cz_min; cz <= cz_max; cz++) {
+                List<MinecartMember<?>> chunkMembers = worldMembers.get(MathUtil.longHashToLong(cx, cz));
+                if (chunkMembers != null) {
+                    for (MinecartMember<?> member : chunkMembers) {
+                        action.accept(member);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        public World world;
+        public long key;
+
+        public Entry(World world, long key) {
+            this.world = world;
+            this.key = key;
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.bergerkiller.bukkit.tc.cache;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.bukkit.World;
@@ -20,20 +24,79 @@ import com.bergerkiller.bukkit.tc.rails.type.RailType;
 public class RailPieceCache {
     private static final LookupKey LOOKUP_KEY = new LookupKey();
     private static final RailPiece[] EMPTY_INFO = new RailPiece[0];
-    private static final Map<Key, Value> cache = new HashMap<Key, Value>();
+    private static final int MAX_TRACK_CHANGES = 64; // Must be a power of two
+    private static final Block[] trackChanges = new Block[MAX_TRACK_CHANGES];
+    private static final Map<Key, Value> liveCache = new HashMap<Key, Value>();
+    private static final Map<Key, Value> scratchCache = new HashMap<Key, Value>();
+    private static Map<Key, Value> cache = liveCache;
     private static int lifeTimer = 0;
+    private static int trackChangeCounter = 0;
 
     /**
-     * Removes rail pieces cached at a block position in the world
+     * Removes rail pieces cached at a block position in the world.
+     * They are removed from both the normal and the scratch cache.
      * 
      * @param blockPosition
      */
     public static void removeAtPosition(Block blockPosition) {
+        notifyTrackChange(blockPosition);
         try (LookupKey key = LOOKUP_KEY.lock(blockPosition)) {
-            cache.remove(key);
+            liveCache.remove(key);
+            scratchCache.remove(key);
         }
     }
 
+    /**
+     * Notifies that rails were placed, broken, switched or otherwise changed shape.
+     * Information computed by walking along the track, such as the rails up ahead of
+     * a train, should be computed again when it includes these rails.
+     *
+     * @param railBlock Block of the rails that changed
+     */
+    public static void notifyTrackChange(Block railBlock) {
+        trackChanges[trackChangeCounter & (MAX_TRACK_CHANGES - 1)] = railBlock;
+        trackChangeCounter++;
+    }
+
+    /**
+     * Gets a number that changes every time rails change shape. If the number is the
+     * same as before, information computed by walking along the track is still valid.
+     *
+     * @return track change counter
+     * @see #getTrackChangesSince(int)
+     */
+    public static int getTrackChangeCounter() {
+        return trackChangeCounter;
+    }
+
+    /**
+     * Gets the blocks of the rails that changed since the track change counter had
+     * a particular value. If a lot of rails changed since then, or it is not known
+     * what rails changed, null is returned. Then all information computed by walking
+     * along the track should be computed again.
+     *
+     * @param counter Earlier value of {@link #getTrackChangeCounter()}
+     * @return blocks of the rails that changed, or null if unknown
+     */
+    public static List<Block> getTrackChangesSince(int counter) {
+        int numChanges = trackChangeCounter - counter;
+        if (numChanges == 0) {
+            return Collections.emptyList();
+        } else if (numChanges < 0 || numChanges > MAX_TRACK_CHANGES) {
+            return null;
+        }
+
+        List<Block> changes = new ArrayList<Block>(numChanges);
+        for (int i = counter; i != trackChangeCounter; i++) {
+            Block railBlock = trackChanges[i & (MAX_TRACK_CHANGES - 1)];
+            if (railBlock == null) {
+                return null; // Everything changed
+            }
+            changes.add(railBlock);
+        }
+        return changes;
+    }
+
     /**
      * Gets all the cached rail pieces available at the position in a rail state
      * 
@@ -101,7 +164,40 @@ public class RailPieceCache {
 
     // removes all cached rails, forcing a global recalculation
     public static void reset() {
-        cache.clear();
+        Arrays.fill(trackChanges, null); // Everything changed
+        trackChangeCounter++;
+        liveCache.clear();
+        scratchCache.clear();
+    }
+
+    /**
+     * Sets whether rail pieces are looked up in, and stored in, a separate scratch cache.
+     * This is used by path finding, which visits a lot of rails only once, so that the
+     * cache used by trains is not polluted with these rails.
+     *
+     * @param scratch True to use the scratch cache, False to use the normal cache
+     */
+    public static void setScratchMode(boolean scratch) {
+        cache = scratch ? scratchCache : liveCache;
+    }
+
+    /**
+     * Removes all rail pieces stored in the scratch cache
+     *
+     * @see #setScratchMode(boolean)
+     */
+    public static void resetScratch() {
+        scratchCache.clear();
+    }
+
+    /**
+     * Gets the number of blocks for which rail pieces are stored in the scratch cache
+     *
+     * @return scratch cache size
+     * @see #setScratchMode(boolean)
+     */
+    public static int getScratchSize() {
+        return scratchCache.size();
     }
 
     /**
@@ -109,7 +205,12 @@ public class RailPieceCache {
      * Called from {@link RailSignCache#reset()}
      */
     protected static void resetSigns() {
-        for (Value value : cache.values()) {
+        for (Value value : liveCache.values()) {
+            for (RailPiece info : value.info) {
+                info.refreshSigns();
+            }
+        }
+        for (Value value : scratchCache.values()) {
             for (RailPiece info : value.info) {
                 info.refreshSigns();
             }
@@ -119,7 +220,7 @@ public class RailPieceCache {
     // cleans up cached rail types that haven't been accessed in quite a while
     public static void update() {
         int dead = lifeTimer - 20;
-        Iterator<Value> iter = cache.values().iterator();
+        Iterator<Value> iter = liveCache.values().iterator();
         while (iter.hasNext()) {
             if (iter.next().life < dead) {
                 iter.remove();
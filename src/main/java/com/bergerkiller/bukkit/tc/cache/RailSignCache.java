@@ -1,6 +1,7 @@
 package com.bergerkiller.bukkit.tc.cache;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -20,6 +21,7 @@ import com.bergerkiller.bukkit.common.utils.WorldUtil;
 import com.bergerkiller.bukkit.common.wrappers.BlockData;
 import com.bergerkiller.bukkit.tc.controller.components.RailPiece;
 import com.bergerkiller.bukkit.tc.rails.type.RailType;
+import com.bergerkiller.bukkit.tc.signactions.SignAction;
 
 /**
  * Caches and searches for signs below rails blocks in the order in which they should be executed.
@@ -29,7 +31,9 @@ public class RailSignCache {
     private static final Material SIGN_POST_TYPE = getMaterial("LEGACY_SIGN_POST");
     private static BlockFace[] SIGN_FACES_ORDERED = {BlockFace.UP, BlockFace.NORTH, BlockFace.EAST, BlockFace.SOUTH, BlockFace.WEST, BlockFace.DOWN};
     private static final TrackedSign[] EMPTY_SIGNS = new TrackedSign[0];
-    private static final HashMap<RailPiece, CachedRailSignList> cachedRailSigns = new HashMap<RailPiece, CachedRailSignList>();
+    private static final HashMap<RailPiece, CachedRailSignList> liveRailSigns = new HashMap<RailPiece, CachedRailSignList>();
+    private static final HashMap<RailPiece, CachedRailSignList> scratchRailSigns = new HashMap<RailPiece, CachedRailSignList>();
+    private static HashMap<RailPiece, CachedRailSignList> cachedRailSigns = liveRailSigns;
     private static final List<Block> signListCache = new ArrayList<Block>();
 
     /**
@@ -186,18 +190,45 @@ public class RailSignCache {
 
     // removes all cached signs, forcing a global recalculation
     public static void reset() {
-        cachedRailSigns.clear();
+        liveRailSigns.clear();
+        scratchRailSigns.clear();
         RailPieceCache.resetSigns();
     }
 
+    /**
+     * Sets whether rail signs are looked up in, and stored in, a separate scratch cache.
+     * This is used by path finding, which visits a lot of rails only once, so that the
+     * cache used by trains is not polluted with these rails.
+     *
+     * @param scratch True to use the scratch cache, False to use the normal cache
+     */
+    public static void setScratchMode(boolean scratch) {
+        cachedRailSigns = scratch ? scratchRailSigns : liveRailSigns;
+    }
+
+    /**
+     * Removes all rail signs stored in the scratch cache
+     *
+     * @see #setScratchMode(boolean)
+     */
+    public static void resetScratch() {
+        scratchRailSigns.clear();
+    }
+
     // cleans up cached rail sign lists that haven't been accessed in quite a while
     public static void cleanup() {
-        Iterator<CachedRailSignList> iter = cachedRailSigns.values().iterator();
+        Iterator<CachedRailSignList> iter = liveRailSigns.values().iterator();
         while (iter.hasNext()) {
             if (++iter.next().life > 20) {
                 iter.remove();
             }
         }
+
+        // Scratch entries are wiped by path finding itself, but they must still age
+        // so that signs broken while path finding is busy are verified again
+        for (CachedRailSignList list : scratchRailSigns.values()) {
+            list.life++;
+        }
     }
 
     private static void addSignsFromRails(List<Block> rval, Block startBlock, BlockFace signDirection) {
@@ -251,6 +282,9 @@ public class RailSignCache {
         public final RailPiece rail;
         public final RailType railType;
         public final Block railBlock;
+        private int matchedActionsVersion = -1;
+        private String[] matchedActionsLines = null;
+        private SignAction[] matchedActions = null;
 
         public TrackedSign(Block signBlock, RailPiece rail) {
             this.sign = BlockUtil.getSign(signBlock);
@@ -260,6 +294,36 @@ public class RailSignCache {
             this.railBlock = rail.block();
         }
 
+        /**
+         * Gets the sign actions that matched the text of this sign the last time it was checked.
+         * Used by {@link SignAction} to avoid matching every registered sign action again for
+         * every event fired for this sign.
+         *
+         * @param version Version of the registered sign actions
+         * @param lines Current lines of text of the sign
+         * @return matched sign actions, or null if not stored or the version or lines changed
+         */
+        public SignAction[] getMatchedActions(int version, String[] lines) {
+            if (this.matchedActionsVersion != version || !Arrays.equals(this.matchedActionsLines, lines)) {
+                return null;
+            }
+            return this.matchedActions;
+        }
+
+        /**
+         * Stores the sign actions that matched the text of this sign.
+         * See {@link #getMatchedActions(int, String[])}.
+         *
+         * @param version Version of the registered sign actions
+         * @param lines Lines of text of the sign the actions were matched against
+         * @param actions Sign actions that matched
+         */
+        public void setMatchedActions(int version, String[] lines, SignAction[] actions) {
+            this.matchedActionsVersion = version;
+            this.matchedActionsLines = lines.clone();
+            this.matchedActions = actions;
+        }
+
         @Override
         public int hashCode() {
             return this.signBlock.hashCode();
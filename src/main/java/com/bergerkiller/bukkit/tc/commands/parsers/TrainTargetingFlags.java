@@ -1,7 +1,6 @@
 package com.bergerkiller.bukkit.tc.commands.parsers;
 
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.UUID;
@@ -13,17 +12,15 @@ import java.util.stream.Stream;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.command.CommandSender;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 
 import com.bergerkiller.bukkit.common.BlockLocation;
 import com.bergerkiller.bukkit.common.utils.ParseUtil;
-import com.bergerkiller.bukkit.common.utils.WorldUtil;
 import com.bergerkiller.bukkit.tc.Localization;
 import com.bergerkiller.bukkit.tc.Permission;
+import com.bergerkiller.bukkit.tc.cache.MemberChunkCache;
 import com.bergerkiller.bukkit.tc.commands.annotations.CommandTargetTrain;
 import com.bergerkiller.bukkit.tc.controller.MinecartMember;
-import com.bergerkiller.bukkit.tc.controller.MinecartMemberStore;
 import com.bergerkiller.bukkit.tc.exception.command.NoTrainNearbyException;
 import com.bergerkiller.bukkit.tc.exception.command.NoTrainSelectedException;
 import com.bergerkiller.bukkit.tc.properties.CartProperties;
@@ -152,16 +149,9 @@ public class TrainTargetingFlags implements BiFunction<CommandTargetTrain, Comma
                 near.at.setWorld(atWorld);
             }
 
-            // Find all nearby entities at these coordinates
-            List<Entity> nearby = WorldUtil.getNearbyEntities(near.at, near.radius, near.radius, near.radius);
-
-            // Find the closest MinecartMember to this position, within radius
-            final double distanceSquaredMax = (near.radius * near.radius);
-            Stream<MemberResult> nearbyMembers = nearby.stream()
-                    .map(MinecartMemberStore::getFromEntity)
-                    .filter(Objects::nonNull)
-                    .map(member -> new MemberResult(member, near.at))
-                    .filter(r -> r.distanceSquared <= distanceSquaredMax);
+            // Find all nearby carts at these coordinates, within radius
+            Stream<MemberResult> nearbyMembers = MemberChunkCache.findNear(near.at, near.radius).stream()
+                    .map(member -> new MemberResult(member, near.at));
 
             // If --train was specified, filter to within carts of that train
             if (trainProperties != null) {
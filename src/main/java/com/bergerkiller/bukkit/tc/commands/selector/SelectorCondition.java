@@ -64,6 +64,17 @@ public class SelectorCondition {
         return this.value.equals(value);
     }
 
+    /**
+     * Gets the text all text values matched by this selector value expression
+     * start with. This can be used to narrow down the values to check using
+     * a sorted index.
+     *
+     * @return text that matched values start with, or null if any text could match
+     */
+    public String getTextPrefix() {
+        return this.value;
+    }
+
     /**
      * Gets the bounding range of values specified as a value. Throws a
      * SelectorException if this value expression does not denote a number.
@@ -216,6 +227,11 @@ public class SelectorCondition {
             return !base.matchesText(value);
         }
 
+        @Override
+        public String getTextPrefix() {
+            return null;
+        }
+
         @Override
         public BoundingRange getBoundingRange() throws SelectorException {
             return base.getBoundingRange().invert();
@@ -299,6 +315,11 @@ public class SelectorCondition {
             return min.matchesText(value) || max.matchesText(value);
         }
 
+        @Override
+        public String getTextPrefix() {
+            return null;
+        }
+
         @Override
         public BoundingRange getBoundingRange() throws SelectorException {
             return BoundingRange.create(min.valueDouble, max.valueDouble);
@@ -344,6 +365,11 @@ public class SelectorCondition {
         public boolean matchesText(String value) throws SelectorException {
             return Util.matchText(value, this.elements, this.firstAny, this.lastAny);
         }
+
+        @Override
+        public String getTextPrefix() {
+            return this.firstAny ? null : this.elements[0];
+        }
     }
 
     /**
@@ -377,6 +403,11 @@ public class SelectorCondition {
             return false;
         }
 
+        @Override
+        public String getTextPrefix() {
+            return null;
+        }
+
         @Override
         public BoundingRange getBoundingRange() throws SelectorException {
             double min = Double.MAX_VALUE;
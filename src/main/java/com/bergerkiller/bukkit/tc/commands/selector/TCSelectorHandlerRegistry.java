@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -14,6 +15,7 @@ import com.bergerkiller.bukkit.tc.TrainCarts;
 import com.bergerkiller.bukkit.tc.commands.selector.type.PlayersInTrainSelector;
 import com.bergerkiller.bukkit.tc.commands.selector.type.TrainNameSelector;
 import com.bergerkiller.bukkit.tc.controller.MinecartGroup;
+import com.bergerkiller.bukkit.tc.properties.CartPropertiesIndex;
 import com.bergerkiller.bukkit.tc.properties.TrainProperties;
 import com.bergerkiller.bukkit.tc.properties.TrainPropertiesStore;
 import com.bergerkiller.bukkit.tc.properties.api.IPropertySelectorCondition;
@@ -24,10 +26,12 @@ import com.bergerkiller.bukkit.tc.properties.api.IPropertySelectorCondition;
  */
 public class TCSelectorHandlerRegistry extends SelectorHandlerRegistry {
     private final Map<String, IPropertySelectorCondition> conditions;
+    private final Map<String, Function<String, Collection<TrainProperties>>> indexes;
 
     public TCSelectorHandlerRegistry(TrainCarts plugin) {
         super(plugin);
         this.conditions = new HashMap<>();
+        this.indexes = new HashMap<>();
     }
 
     @Override
@@ -47,6 +51,13 @@ public class TCSelectorHandlerRegistry extends SelectorHandlerRegistry {
             registerCondition("speed", speedCondition);
             registerCondition("velocity", speedCondition);
         }
+
+        // Indexes used to find the trains that could match a condition, without checking all trains
+        registerIndex("name", TrainPropertiesStore::getAllWithNamePrefix);
+        registerIndex("train", TrainPropertiesStore::getAllWithNamePrefix);
+        registerIndex("tag", CartPropertiesIndex.TAGS::findTrains);
+        registerIndex("owner", CartPropertiesIndex.OWNERS::findTrains);
+        registerIndex("destination", CartPropertiesIndex.DESTINATIONS::findTrains);
     }
 
     /**
@@ -60,6 +71,19 @@ public class TCSelectorHandlerRegistry extends SelectorHandlerRegistry {
         this.conditions.put(name, condition);
     }
 
+    /**
+     * Registers an index that can be used to quickly find the trains that could match
+     * a @train or @ptrain condition. The index is given the text all values matching
+     * the condition start with, and must return all trains with such a value. The
+     * condition itself is still checked for the trains returned.
+     *
+     * @param name Name of the condition
+     * @param index Function that returns all trains with a value starting with a text
+     */
+    public void registerIndex(String name, Function<String, Collection<TrainProperties>> index) {
+        this.indexes.put(name, index);
+    }
+
     /**
      * Un-registers a @train or @ptrain condition, that can after registration
      * be used to filter train properties.
@@ -89,13 +113,14 @@ public class TCSelectorHandlerRegistry extends SelectorHandlerRegistry {
         // Make mutable
         conditions = new ArrayList<>(conditions);
 
-        // Stream the properties of all trains on the server
-        Stream<TrainProperties> stream = TrainPropertiesStore.getAll().stream();
-
         // Filter trains by world and/or the location coordinates of the carts
         // Mutates the conditions list to remove the matchers used
         TCSelectorLocationFilter locationFilter = new TCSelectorLocationFilter();
         locationFilter.read(sender, conditions);
+
+        // Stream the properties of all trains on the server, or only those
+        // that could match one of the conditions if an index can be used
+        Stream<TrainProperties> stream = this.findCandidates(conditions).stream();
         if (locationFilter.hasFilters()) {
             stream = stream.filter(locationFilter::filter);
         }
@@ -118,4 +143,30 @@ public class TCSelectorHandlerRegistry extends SelectorHandlerRegistry {
 
         return result;
     }
+
+    /**
+     * Uses the registered indexes to find the smallest collection of trains
+     * that could match all the conditions specified.
+     *
+     * @param conditions Selector conditions
+     * @return candidate trains, all trains if no index could be used
+     */
+    private Collection<TrainProperties> findCandidates(List<SelectorCondition> conditions) {
+        Collection<TrainProperties> candidates = TrainPropertiesStore.getAll();
+        for (SelectorCondition selectorCondition : conditions) {
+            Function<String, Collection<TrainProperties>> index = this.indexes.get(selectorCondition.getKey());
+            if (index == null) {
+                continue;
+            }
+            String prefix = selectorCondition.getTextPrefix();
+            if (prefix == null || prefix.isEmpty()) {
+                continue;
+            }
+            Collection<TrainProperties> indexed = index.apply(prefix);
+            if (indexed.size() < candidates.size()) {
+                candidates = indexed;
+            }
+        }
+        return candidates;
+    }
 }
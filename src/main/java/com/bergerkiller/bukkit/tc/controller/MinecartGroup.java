@@ -24,6 +24,7 @@ import com.bergerkiller.bukkit.tc.TrainCarts;
 import com.bergerkiller.bukkit.tc.Util;
 import com.bergerkiller.bukkit.tc.attachments.animation.Animation;
 import com.bergerkiller.bukkit.tc.attachments.animation.AnimationOptions;
+import com.bergerkiller.bukkit.tc.cache.MemberChunkCache;
 import com.bergerkiller.bukkit.tc.cache.RailMemberCache;
 import com.bergerkiller.bukkit.tc.controller.components.ActionTrackerGroup;
 import com.bergerkiller.bukkit.tc.controller.components.AnimationController;
@@ -87,6 +88,17 @@ public class MinecartGroup extends MinecartGroupStore implements IPropertiesHold
         this.ticked.set();
     }
 
+    /**
+     * Gets the properties of this train if they were created before, and this
+     * train is not unloaded. Unlike {@link #getProperties()}, this never creates
+     * new properties, which makes it safe to use while handling errors.
+     *
+     * @return train properties, or null if not available
+     */
+    TrainProperties getExistingProperties() {
+        return this.unloaded ? null : this.prop;
+    }
+
     @Override
     public TrainProperties getProperties() {
         if (this.prop == null) {
@@ -247,6 +259,7 @@ public class MinecartGroup extends MinecartGroupStore implements IPropertiesHold
         this.chunkAreaValid = false;
         notifyPhysicsChange();
         member.setGroup(this);
+        MemberChunkCache.update(member);
         this.getSignTracker().updatePosition();
         this.getProperties().add(member.getProperties());
     }
@@ -365,6 +378,7 @@ public class MinecartGroup extends MinecartGroupStore implements IPropertiesHold
         try (Timings t = TCTimings.RAILMEMBERCACHE.start()) {
             RailMemberCache.remove(member);
         }
+        MemberChunkCache.remove(member);
     }
 
     public MinecartMember<?> remove(int index) {
@@ -423,6 +437,7 @@ public class MinecartGroup extends MinecartGroupStore implements IPropertiesHold
         final TrainProperties properties = this.getProperties();
         for (MinecartMember<?> mm : this.toArray()) {
             properties.remove(mm.getProperties());
+            MemberChunkCache.remove(mm);
             if (mm.getEntity().isDead()) {
                 mm.onDie(true);
             } else {
@@ -499,6 +514,11 @@ public class MinecartGroup extends MinecartGroupStore implements IPropertiesHold
         // Remove from member-by-rail cache
         getRailTracker().unload();
 
+        // Remove from member-by-chunk cache
+        for (MinecartMember<?> member : this) {
+            MemberChunkCache.remove(member);
+        }
+
         // Store the group offline
         OfflineGroupManager.storeGroup(this);
 
@@ -1198,6 +1218,11 @@ public class MinecartGroup extends MinecartGroupStore implements IPropertiesHold
     private void updateChunkInformation() {
         boolean canUnload = this.canUnload();
         try (Timings t = TCTimings.GROUP_UPDATE_CHUNKS.start()) {
+            // Refresh the chunks the members are registered in for finding nearby trains
+            for (MinecartMember<?> member : this) {
+                MemberChunkCache.update(member);
+            }
+
             // Refresh the chunk area tracker using this information
             this.chunkArea.refresh(this.getWorld(), this.loadChunksBuffer());
             this.chunkAreaValid = true;
@@ -1219,9 +1244,11 @@ public class MinecartGroup extends MinecartGroupStore implements IPropertiesHold
                 }
 
                 // Load chunks closeby right away and guarantee they are loaded at all times
-                for (ChunkArea.OwnedChunk chunk : this.chunkArea.getAll()) {
-                    if (chunk.getDistance() <= 1 && chunk.getPreviousDistance() > 1) {
-                        chunk.loadChunk();
+                if (this.chunkArea.isDistanceChanged()) {
+                    for (ChunkArea.OwnedChunk chunk : this.chunkArea.getAll()) {
+                        if (chunk.getDistance() <= 1 && chunk.getPreviousDistance() > 1) {
+                            chunk.loadChunk();
+                        }
                     }
                 }
             }
@@ -17,6 +17,7 @@ import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 
 import java.util.*;
+import java.util.logging.Level;
 
 public class MinecartGroupStore extends ArrayList<MinecartMember<?>> {
     private static final long serialVersionUID = 1;
@@ -31,23 +32,32 @@ public class MinecartGroupStore extends ArrayList<MinecartMember<?>> {
      */
     public static void doFixedTick(TrainCarts plugin) {
         try (ImplicitlySharedSet<MinecartGroup> groups_copy = groups.clone()) {
-            try {
-                for (MinecartGroup group : groups_copy) {
-                    // Tick the train if required
-                    if (!group.ticked.clear()) {
-                        group.doPhysics(plugin);
-                    }
+            for (MinecartGroup group : groups_copy) {
+                doFixedTick(plugin, group);
+            }
+        }
+    }
 
-                    // Perform post-tick physics for all Minecarts in the train, if not previously ticked
-                    for (MinecartMember<?> member : group) {
-                        if (!member.ticked.clear()) {
-                            member.getEntity().doPostTick();
-                        }
-                    }
+    private static void doFixedTick(TrainCarts plugin, MinecartGroup group) {
+        try {
+            // Tick the train if required
+            if (!group.ticked.clear()) {
+                group.doPhysics(plugin);
+            }
+
+            // Perform post-tick physics for all Minecarts in the train, if not previously ticked
+            for (MinecartMember<?> member : group) {
+                if (!member.ticked.clear()) {
+                    member.getEntity().doPostTick();
                 }
-            } catch (Throwable t) {
-                TrainCarts.plugin.handle(t);
             }
+        } catch (Throwable t) {
+            // Do not create properties here, the group might be unloaded or removed already
+            final TrainProperties p = group.getExistingProperties();
+            if (p != null) {
+                plugin.log(Level.SEVERE, "Failed to perform post-tick logic of train '" + p.getTrainName() + "':");
+            }
+            plugin.handle(t);
         }
     }
 
@@ -2079,12 +2079,11 @@ public abstract class MinecartMember<T extends CommonMinecart<?>> extends Entity
                         effect.play(p);
                     }
 
-                    // Play the sound effect for all players nearby
-                    for (Entity nearby : entity.getNearbyEntities(64.0)) {
-                        if (nearby instanceof Player && !entity.isPassenger(nearby)) {
-                            effect.play(entity.getLocation(), (Player) nearby);
-                        }
-                    }
+                    // Play the sound effect for all players nearby that can see the cart
+                    // Searching all players of the world every time a cart starts moving is too slow
+                    List<Player> audience = this.getAttachments().getViewersWithin(64.0);
+                    audience.removeIf(p -> entity.isPassenger(p));
+                    effect.playForPlayers(entity.getLocation(), audience);
                 }
             }
         }
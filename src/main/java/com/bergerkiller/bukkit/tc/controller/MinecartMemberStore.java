@@ -12,6 +12,7 @@ import com.bergerkiller.bukkit.common.utils.*;
 import com.bergerkiller.bukkit.common.wrappers.HumanHand;
 import com.bergerkiller.bukkit.tc.TCConfig;
 import com.bergerkiller.bukkit.tc.TrainCarts;
+import com.bergerkiller.bukkit.tc.cache.MemberChunkCache;
 import com.bergerkiller.bukkit.tc.cache.RailMemberCache;
 import com.bergerkiller.bukkit.tc.controller.components.RailPiece;
 import com.bergerkiller.bukkit.tc.controller.type.*;
@@ -390,12 +391,9 @@ public abstract class MinecartMemberStore {
         }
         MinecartMember<?> result = null;
         final double distSquared = searchRadius * searchRadius;
-        for (org.bukkit.entity.Entity e : WorldUtil.getNearbyEntities(at, searchRadius, searchRadius, searchRadius)) {
-            MinecartMember<?> mm = getFromEntity(e);
-            if (mm == null) {
-                continue;
-            }
-            if (in != null && mm.getGroup() != in) {
+        final Iterable<MinecartMember<?>> candidates = (in != null) ? in : MemberChunkCache.findNear(at, searchRadius);
+        for (MinecartMember<?> mm : candidates) {
+            if (mm.isUnloaded() || mm.getEntity().getWorld() != at.getWorld()) {
                 continue;
             }
             if (mm.getEntity().loc.distanceSquared(at) > distSquared) {
@@ -1,20 +1,27 @@
 package com.bergerkiller.bukkit.tc.controller.components;
 
 import com.bergerkiller.bukkit.common.Timings;
+import com.bergerkiller.bukkit.tc.TCConfig;
 import com.bergerkiller.bukkit.tc.TCTimings;
 import com.bergerkiller.bukkit.tc.attachments.helper.AttachmentUpdateTransformHelper;
 import com.bergerkiller.bukkit.tc.controller.MinecartGroup;
 import com.bergerkiller.bukkit.tc.controller.MinecartMember;
 
 /**
- * Manages the attachments updates of all the carts of a train
+ * Manages the attachments updates of all the carts of a train.
+ * When none of the players that can see the train are nearby, the movement
+ * of the attachments is synchronized less frequently.
  */
 public class AttachmentControllerGroup {
     public static final int ABSOLUTE_UPDATE_INTERVAL = 200;
     public static final int MOVEMENT_UPDATE_INTERVAL = 3;
+    public static final int VIEWER_DISTANCE_CHECK_INTERVAL = 20;
     private final MinecartGroup group;
     private int movementCounter;
     private int ticksSinceLocationSync = 0;
+    private int ticksSinceViewerDistanceCheck = VIEWER_DISTANCE_CHECK_INTERVAL;
+    private boolean viewedFromFar = false;
+    private int farMovementCounter = 0;
 
     public AttachmentControllerGroup(MinecartGroup group) {
         this.group = group;
@@ -29,7 +36,7 @@ public class AttachmentControllerGroup {
             AttachmentControllerMember controller = member.getAttachments();
             if (controller.isAttached()) {
                 controller.syncPrePositionUpdate();
-                updater.start(controller.getRootAttachment(), controller.getLiveTransform());
+                controller.updateTransform(updater);
             }
         }
     }
@@ -57,8 +64,12 @@ public class AttachmentControllerGroup {
                 for (MinecartMember<?> member : group) {
                     member.getAttachments().syncMovement(true);
                 }
+            } else if (this.isViewedFromFar() && ++this.farMovementCounter < TCConfig.attachmentFarUpdateInterval) {
+                // Nobody is near the train, skip relative updates this tick
+                // The movement since is sent all at once later on
             } else {
                 // Perform relative updates
+                this.farMovementCounter = 0;
                 boolean needsSync = isUpdateTick;
                 if (!needsSync) {
                     for (MinecartMember<?> member : group) {
@@ -77,4 +88,26 @@ public class AttachmentControllerGroup {
             }
         }
     }
+
+    /**
+     * Gets whether none of the players that can see the train are near it.
+     * This is only checked every {@link #VIEWER_DISTANCE_CHECK_INTERVAL} ticks.
+     *
+     * @return True if the train is only viewed from far away
+     */
+    private boolean isViewedFromFar() {
+        if (++this.ticksSinceViewerDistanceCheck >= VIEWER_DISTANCE_CHECK_INTERVAL) {
+            this.ticksSinceViewerDistanceCheck = 0;
+            this.viewedFromFar = (TCConfig.attachmentFarViewDistance > 0.0);
+            if (this.viewedFromFar) {
+                for (MinecartMember<?> member : this.group) {
+                    if (member.getAttachments().hasViewerWithin(TCConfig.attachmentFarViewDistance)) {
+                        this.viewedFromFar = false;
+                        break;
+                    }
+                }
+            }
+        }
+        return this.viewedFromFar;
+    }
 }
@@ -8,6 +8,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -28,6 +29,7 @@ import com.bergerkiller.bukkit.tc.attachments.api.AttachmentType;
 import com.bergerkiller.bukkit.tc.attachments.config.AttachmentModel;
 import com.bergerkiller.bukkit.tc.attachments.config.AttachmentModelOwner;
 import com.bergerkiller.bukkit.tc.attachments.control.CartAttachmentSeat;
+import com.bergerkiller.bukkit.tc.attachments.helper.AttachmentUpdateTransformHelper;
 import com.bergerkiller.bukkit.tc.attachments.helper.HelperMethods;
 import com.bergerkiller.bukkit.tc.controller.MinecartMember;
 import com.bergerkiller.generated.net.minecraft.world.entity.EntityHandle;
@@ -49,6 +51,10 @@ public class AttachmentControllerMember implements AttachmentModelOwner, Attachm
     private Set<Player> viewers = new HashSet<Player>();
     protected final ToggledState networkInvalid = new ToggledState();
     private boolean attached = false;
+    private boolean transformOutdated = false;
+    private boolean hasWorldEffects = false;
+    private World entityIdsWorld = null;
+    private int[] entityIds = new int[0];
 
     private long animationCurrentTime = 0;
     private double animationDeltaTime = 0.0;
@@ -82,6 +88,7 @@ public class AttachmentControllerMember implements AttachmentModelOwner, Attachm
             HelperMethods.perform_onDetached(this.rootAttachment);
             this.rootAttachment = null;
         }
+        this.unregisterEntityIds();
         this.member.getProperties().getModel().removeOwner(this);
     }
 
@@ -286,6 +293,13 @@ public class AttachmentControllerMember implements AttachmentModelOwner, Attachm
 
     // Called from NetworkController
     public synchronized void makeVisible(Player viewer) {
+        // Transforms are not updated while nobody can see them, so do so now
+        if (this.transformOutdated && this.rootAttachment != null) {
+            this.transformOutdated = false;
+            TrainCarts.plugin.getTrainUpdateController().computeAttachmentTransform(
+                    this.rootAttachment, this.getLiveTransform());
+        }
+
         viewers.add(viewer);
         HelperMethods.makeVisibleRecursive(this.getRootAttachment(), true, viewer);
     }
@@ -309,6 +323,92 @@ public class AttachmentControllerMember implements AttachmentModelOwner, Attachm
         return this.viewers;
     }
 
+    /**
+     * Gets whether any of the players viewing the attachments of this cart
+     * is within a certain distance of the cart
+     *
+     * @param distance Distance in blocks
+     * @return True if a viewer is within the distance
+     */
+    public synchronized boolean hasViewerWithin(double distance) {
+        if (this.viewers.isEmpty()) {
+            return false;
+        }
+        Location cartLoc = this.member.getEntity().getLocation();
+        double distanceSquared = distance * distance;
+        Location viewerLoc = new Location(null, 0.0, 0.0, 0.0);
+        for (Player viewer : this.viewers) {
+            if (isWithin(viewer, viewerLoc, cartLoc, distanceSquared)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the players viewing the attachments of this cart that are within a
+     * certain distance of the cart. These are the players that can hear sounds
+     * and see effects played at the cart, without having to look for nearby entities.
+     *
+     * @param distance Distance in blocks
+     * @return viewers within the distance (new list)
+     */
+    public synchronized List<Player> getViewersWithin(double distance) {
+        if (this.viewers.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Location cartLoc = this.member.getEntity().getLocation();
+        double distanceSquared = distance * distance;
+        Location viewerLoc = new Location(null, 0.0, 0.0, 0.0);
+        List<Player> result = new ArrayList<Player>(this.viewers.size());
+        for (Player viewer : this.viewers) {
+            if (isWithin(viewer, viewerLoc, cartLoc, distanceSquared)) {
+                result.add(viewer);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets all players within a certain distance of the cart. When the distance is
+     * within the minecart tracking range, these are the viewers within the distance.
+     * Beyond that range players are not sent the cart, and so are not viewers, so
+     * then all players of the world within the distance are returned instead.
+     *
+     * @param distance Distance in blocks
+     * @return players within the distance (new list)
+     * @see TCConfig#minecartTrackingRange
+     */
+    public List<Player> getPlayersWithin(double distance) {
+        if (distance <= TCConfig.minecartTrackingRange) {
+            return getViewersWithin(distance);
+        }
+        Location cartLoc = this.member.getEntity().getLocation();
+        double distanceSquared = distance * distance;
+        Location playerLoc = new Location(null, 0.0, 0.0, 0.0);
+        List<Player> result = new ArrayList<Player>();
+        for (Player player : cartLoc.getWorld().getPlayers()) {
+            if (isWithin(player, playerLoc, cartLoc, distanceSquared)) {
+                result.add(player);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a player is in the same world as the cart, and within a distance of it
+     *
+     * @param player Player to check
+     * @param playerLoc Location to store the position of the player in
+     * @param cartLoc Position of the cart
+     * @param distanceSquared Squared distance in blocks
+     * @return True if the player is within the distance
+     */
+    private static boolean isWithin(Player player, Location playerLoc, Location cartLoc, double distanceSquared) {
+        player.getLocation(playerLoc);
+        return playerLoc.getWorld() == cartLoc.getWorld() && playerLoc.distanceSquared(cartLoc) <= distanceSquared;
+    }
+
     /**
      * Gets whether a given player is viewing the attachments of this cart
      *
@@ -329,6 +429,29 @@ public class AttachmentControllerMember implements AttachmentModelOwner, Attachm
         return HelperMethods.findAttachmentWithEntityId(this.rootAttachment, entityId) != null;
     }
 
+    /**
+     * Stores the Entity Ids used by all attachments in the attachment Entity Id map,
+     * so that interaction with these attachments can be quickly mapped to this cart.
+     * Entity Ids that were stored before are removed.
+     */
+    private void registerEntityIds() {
+        this.unregisterEntityIds();
+
+        IntStream.Builder builder = IntStream.builder();
+        HelperMethods.collectEntityIdsRecursive(this.rootAttachment, builder);
+        this.entityIds = builder.build().toArray();
+        this.entityIdsWorld = this.member.getWorld();
+        TrainCarts.plugin.getAttachmentEntityIdMap().register(this.entityIdsWorld, this.entityIds, this);
+    }
+
+    private void unregisterEntityIds() {
+        if (this.entityIdsWorld != null) {
+            TrainCarts.plugin.getAttachmentEntityIdMap().unregister(this.entityIdsWorld, this.entityIds, this);
+            this.entityIdsWorld = null;
+            this.entityIds = new int[0];
+        }
+    }
+
     /**
      * Checks what seat a player is looking at, and stores that seat for later entering operations.
      * The information is stored for at most 2 ticks before it is invalidated.
@@ -388,6 +511,24 @@ public class AttachmentControllerMember implements AttachmentModelOwner, Attachm
         }
     }
 
+    /**
+     * Schedules updating the transforms of all attachments of this cart. When nobody
+     * can see the attachments and the cart has no passengers, this is skipped until
+     * a player can see them again.
+     *
+     * @param updater Helper that updates the attachment transforms
+     */
+    public void updateTransform(AttachmentUpdateTransformHelper updater) {
+        if (TCConfig.attachmentTransformSkipUnviewed && this.viewers.isEmpty()
+                && !this.hasWorldEffects && !this.member.getEntity().hasPassenger()
+        ) {
+            this.transformOutdated = true;
+        } else {
+            this.transformOutdated = false;
+            updater.start(this.getRootAttachment(), this.getLiveTransform());
+        }
+    }
+
     /**
      * Updates to perform every tick after the attachment positions are updated
      */
@@ -501,12 +642,14 @@ public class AttachmentControllerMember implements AttachmentModelOwner, Attachm
 
         // Attach new attachments - after this viewers see everything but passengers are not 'in'
         this.rootAttachment = this.createAttachment(model.getConfig());
+        this.hasWorldEffects = HelperMethods.hasWorldEffectsRecursive(this.rootAttachment);
         HelperMethods.perform_onAttached(this.rootAttachment);
         TrainCarts.plugin.getTrainUpdateController().computeAttachmentTransform(
                 this.rootAttachment, this.getLiveTransform());
 
         this.seatAttachments.clear();
         this.discoverSeats(this.rootAttachment);
+        this.registerEntityIds();
 
         for (Player viewer : this.getViewers()) {
             HelperMethods.makeVisibleRecursive(this.rootAttachment, true, viewer);
@@ -568,6 +711,7 @@ public class AttachmentControllerMember implements AttachmentModelOwner, Attachm
         // Reload the configuration of just this one attachment
         attachment.getInternalState().onLoad(this.getClass(), newAttachmentType, config);
         attachment.onLoad(config);
+        this.registerEntityIds();
 
         // TODO: Maybe only update from the changed attachment onwards?
         TrainCarts.plugin.getTrainUpdateController().computeAttachmentTransform(
@@ -46,7 +46,7 @@ public class SignTrackerGroup extends SignTracker {
 
     @Override
     protected void onSignChange(TrackedSign sign, boolean active) {
-        SignActionEvent event = new SignActionEvent(sign.signBlock, sign.rail, owner);
+        SignActionEvent event = new SignActionEvent(sign, owner);
         event.setAction(active ? SignActionType.GROUP_ENTER : SignActionType.GROUP_LEAVE);
         SignAction.executeAll(event);
     }
@@ -277,8 +277,8 @@ public class SignTrackerGroup extends SignTracker {
                 for (MinecartMember<?> member : owner) {
                     SignTrackerMember tracker = member.getSignTracker();
                     if (tracker.needsUpdate.clear()) {
-                        for (Block signBlock : tracker.getActiveSigns()) {
-                            SignAction.executeAll(new SignActionEvent(signBlock, tracker.getOwner()), SignActionType.MEMBER_UPDATE);
+                        for (TrackedSign sign : tracker.getActiveTrackedSigns()) {
+                            SignAction.executeAll(new SignActionEvent(sign, tracker.getOwner()), SignActionType.MEMBER_UPDATE);
                         }
                         for (DetectorRegion region : tracker.getActiveDetectorRegions()) {
                             region.update(tracker.getOwner());
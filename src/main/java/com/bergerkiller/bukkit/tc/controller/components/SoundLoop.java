@@ -2,12 +2,15 @@ package com.bergerkiller.bukkit.tc.controller.components;
 
 import com.bergerkiller.bukkit.common.resources.ResourceKey;
 import com.bergerkiller.bukkit.common.resources.SoundEffect;
-import com.bergerkiller.bukkit.common.utils.WorldUtil;
+import com.bergerkiller.bukkit.common.utils.PlayerUtil;
 import com.bergerkiller.bukkit.tc.controller.MinecartMember;
 
+import java.util.List;
 import java.util.Random;
 
+import org.bukkit.Location;
 import org.bukkit.Sound;
+import org.bukkit.entity.Player;
 
 /**
  * Handles the constant playing of sounds in a minecart
@@ -21,11 +24,40 @@ public class SoundLoop<T extends MinecartMember<?>> {
     }
 
     public void play(Sound sound, float pitch, float volume) {
-        this.member.getEntity().makeSound(sound, volume, pitch);
+        Location location = this.member.getEntity().getLocation();
+        for (Player player : getAudience(volume)) {
+            player.playSound(location, sound, volume, pitch);
+        }
     }
 
     public void play(ResourceKey<SoundEffect> sound, float pitch, float volume) {
-        WorldUtil.playSound(this.member.getEntity().getLocation(), sound, volume, pitch);
+        Location location = this.member.getEntity().getLocation();
+        for (Player player : getAudience(volume)) {
+            PlayerUtil.playSound(player, location, sound, volume, pitch);
+        }
+    }
+
+    /**
+     * Gets the players that can hear a sound played by the minecart. These are the
+     * players within hearing distance of the sound. When the sound can be heard
+     * further away than minecarts are tracked, players that do not see the minecart
+     * are included too.
+     *
+     * @param volume Volume of the sound, which affects how far it can be heard
+     * @return players that can hear the sound
+     */
+    protected List<Player> getAudience(float volume) {
+        return this.member.getAttachments().getPlayersWithin(getHearingDistance(volume));
+    }
+
+    /**
+     * Gets the distance from which a sound played at a volume can be heard
+     *
+     * @param volume Volume of the sound
+     * @return hearing distance in blocks
+     */
+    public static double getHearingDistance(float volume) {
+        return 16.0 * Math.max(1.0, volume);
     }
 
     public void onTick() {
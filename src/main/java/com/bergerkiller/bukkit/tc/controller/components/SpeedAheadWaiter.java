@@ -1,16 +1,23 @@
 package com.bergerkiller.bukkit.tc.controller.components;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.util.Vector;
 
 import com.bergerkiller.bukkit.common.bases.IntVector3;
+import com.bergerkiller.bukkit.common.utils.CommonUtil;
 import com.bergerkiller.bukkit.common.utils.MathUtil;
 import com.bergerkiller.bukkit.tc.cache.RailMemberCache;
+import com.bergerkiller.bukkit.tc.cache.RailPieceCache;
 import com.bergerkiller.bukkit.tc.controller.MinecartGroup;
 import com.bergerkiller.bukkit.tc.controller.MinecartMember;
 import com.bergerkiller.bukkit.tc.properties.TrainProperties;
+import com.bergerkiller.bukkit.tc.rails.type.RailType;
 import com.bergerkiller.bukkit.tc.signactions.mutex.MutexZone;
 import com.bergerkiller.bukkit.tc.signactions.mutex.MutexZoneCache;
 import com.bergerkiller.bukkit.tc.utils.TrackWalkingPoint;
@@ -26,6 +33,7 @@ public class SpeedAheadWaiter {
     private double safeDistance = 0.0;
     private double waitDistanceLastSpeedLimit = Double.MAX_VALUE;
     private int waitRemainingTicks = Integer.MAX_VALUE;
+    private final TrackAheadWindow trackAhead = new TrackAheadWindow();
 
     public SpeedAheadWaiter(MinecartGroup group) {
         this.group = group;
@@ -225,91 +233,120 @@ public class SpeedAheadWaiter {
         final double checkDistance = Math.max(mutexDistance, waitDistance);
 
         UUID worldUUID = group.getWorld().getUID();
-        TrackWalkingPoint iter = new TrackWalkingPoint(group.head().discoverRail());
-        while (iter.movedTotal <= checkDistance && iter.moveFull()) {
-
-            // Check for mutex zones the next block. If one is found that is occupied, stop right away
-            if (iter.movedTotal <= mutexDistance) {
-                MutexZone zone = MutexZoneCache.find(worldUUID, new IntVector3(iter.state.railBlock()));
-                if (zone != null && !zone.slot.tryEnter(group)) {
-                    return new Obstacle(iter.movedTotal, 0.0);
-                }
+        RailState headState = group.head().discoverRail();
+        if (headState.railType() == RailType.NONE) {
+            return null;
+        }
 
-                if (!checkTrains) {
-                    break;
-                }
-            }
+        // Check the rails the head of the train is on
+        Obstacle obstacle = findObstacleOnRail(worldUUID, headState, null, 0.0, mutexDistance, waitDistance, checkTrains);
+        if (obstacle != null || !checkTrains) {
+            return obstacle;
+        }
 
-            // Only check for trains on the rails when a wait distance is set
-            if (!checkTrains) {
-                continue;
+        // Check the rails up ahead. These are walked once and re-used while the train moves along them.
+        if (!this.trackAhead.seek(headState)) {
+            return null;
+        }
+        double movedTotal = 0.0;
+        for (int index = this.trackAhead.first(); movedTotal <= checkDistance; index++) {
+            TrackAheadWindow.Entry entry = this.trackAhead.get(index);
+            if (entry == null) {
+                break;
+            }
+            movedTotal = this.trackAhead.distance(index);
+            obstacle = findObstacleOnRail(worldUUID, entry.state, entry.railPosition, movedTotal, mutexDistance, waitDistance, checkTrains);
+            if (obstacle != null) {
+                return obstacle;
             }
+        }
 
-            // Check all other minecarts on the same rails to see if they are too close
-            Location state_position = null;
-            Location member_position = null;
-            double minSpeedAhead = Double.MAX_VALUE;
-            double minDistanceAhead = 0.0;
-            for (MinecartMember<?> member : RailMemberCache.findAll(iter.state.railBlock())) {
-                if (member.getGroup() == group) {
-                    continue;
-                }
+        return null;
+    }
 
-                // Retrieve & re-use (readonly)
-                if (state_position == null) {
-                    state_position = iter.state.positionLocation();
-                }
+    private Obstacle findObstacleOnRail(UUID worldUUID, RailState state, IntVector3 railPosition,
+            double movedTotal, double mutexDistance, double waitDistance, boolean checkTrains
+    ) {
+        // Check for mutex zones the next block. If one is found that is occupied, stop right away
+        if (movedTotal <= mutexDistance) {
+            if (railPosition == null) {
+                railPosition = new IntVector3(state.railBlock());
+            }
+            MutexZone zone = MutexZoneCache.find(worldUUID, railPosition);
+            if (zone != null && !zone.slot.tryEnter(group)) {
+                return new Obstacle(movedTotal, 0.0);
+            }
+        }
 
-                // Member center position & re-use (readonly)
-                if (member_position == null) {
-                    member_position = member.getEntity().getLocation();
-                } else {
-                    member.getEntity().getLocation(member_position);
-                }
+        // Only check for trains on the rails when a wait distance is set
+        if (!checkTrains) {
+            return null;
+        }
 
-                // Is the minecart 'in front' of the current position on the rails, or behind us?
-                // This is important when iterating over the first track only, because then this is not guaranteed
-                if (iter.movedTotal == 0.0) {
-                    Vector delta = new Vector(member_position.getX() - state_position.getX(),
-                                              member_position.getY() - state_position.getY(),
-                                              member_position.getZ() - state_position.getZ());
-                    if (delta.dot(iter.state.motionVector()) < 0.0) {
-                        continue;
-                    }
-                }
+        // Check all other minecarts on the same rails to see if they are too close
+        Location state_position = null;
+        Location member_position = null;
+        double minSpeedAhead = Double.MAX_VALUE;
+        double minDistanceAhead = 0.0;
+        for (MinecartMember<?> member : RailMemberCache.findAll(state.railBlock())) {
+            if (member.getGroup() == group) {
+                continue;
+            }
 
-                // Compute distance from the current rail position to the 'edge' of the minecart.
-                // This is basically the distance to center, with half the length of the minecart subtracted.
-                double distanceToMember = member_position.distance(state_position) -
-                                          (double) member.getEntity().getWidth() * 0.5;
+            // Retrieve & re-use (readonly)
+            if (state_position == null) {
+                state_position = state.positionLocation();
+            }
+
+            // Member center position & re-use (readonly)
+            if (member_position == null) {
+                member_position = member.getEntity().getLocation();
+            } else {
+                member.getEntity().getLocation(member_position);
+            }
 
-                // Find the distance we can still move from our current position
-                if ((iter.movedTotal + distanceToMember) > waitDistance) {
+            // Is the minecart 'in front' of the current position on the rails, or behind us?
+            // This is important when iterating over the first track only, because then this is not guaranteed
+            if (movedTotal == 0.0) {
+                Vector delta = new Vector(member_position.getX() - state_position.getX(),
+                                          member_position.getY() - state_position.getY(),
+                                          member_position.getZ() - state_position.getZ());
+                if (delta.dot(state.motionVector()) < 0.0) {
                     continue;
                 }
+            }
 
-                // Movement speed of the minecart, taking maximum speed into account
-                Vector member_velocity = member.getEntity().getVelocity();
-                double speedAhead = MathUtil.clamp(member_velocity.length(), member.getEntity().getMaxSpeed());
+            // Compute distance from the current rail position to the 'edge' of the minecart.
+            // This is basically the distance to center, with half the length of the minecart subtracted.
+            double distanceToMember = member_position.distance(state_position) -
+                                      (double) member.getEntity().getWidth() * 0.5;
 
-                // If moving towards me, stop right away! When barely moving, ignore this check.
-                if (speedAhead > 1e-6 && iter.state.position().motDot(member_velocity) < 0.0) {
-                    return new Obstacle(iter.movedTotal + distanceToMember, 0.0);
-                }
+            // Find the distance we can still move from our current position
+            if ((movedTotal + distanceToMember) > waitDistance) {
+                continue;
+            }
 
-                // Too close, match the speed of the Minecart ahead. For the overshoot, slow ourselves down.
-                if (speedAhead < 0.0) {
-                    speedAhead = 0.0;
-                }
-                if (speedAhead < minSpeedAhead) {
-                    minSpeedAhead = speedAhead;
-                    minDistanceAhead = iter.movedTotal + distanceToMember;
-                }
+            // Movement speed of the minecart, taking maximum speed into account
+            Vector member_velocity = member.getEntity().getVelocity();
+            double speedAhead = MathUtil.clamp(member_velocity.length(), member.getEntity().getMaxSpeed());
+
+            // If moving towards me, stop right away! When barely moving, ignore this check.
+            if (speedAhead > 1e-6 && state.position().motDot(member_velocity) < 0.0) {
+                return new Obstacle(movedTotal + distanceToMember, 0.0);
+            }
+
+            // Too close, match the speed of the Minecart ahead. For the overshoot, slow ourselves down.
+            if (speedAhead < 0.0) {
+                speedAhead = 0.0;
             }
-            if (minSpeedAhead != Double.MAX_VALUE) {
-                return new Obstacle(minDistanceAhead, minSpeedAhead);
+            if (speedAhead < minSpeedAhead) {
+                minSpeedAhead = speedAhead;
+                minDistanceAhead = movedTotal + distanceToMember;
             }
         }
+        if (minSpeedAhead != Double.MAX_VALUE) {
+            return new Obstacle(minDistanceAhead, minSpeedAhead);
+        }
 
         return null;
     }
@@ -328,6 +365,171 @@ public class SpeedAheadWaiter {
         }
     }
 
+    /**
+     * The rails up ahead of the train, discovered by walking along the track. As the
+     * head of the train moves onto the next rails, the rails left behind are dropped,
+     * and more rails are walked at the end only when needed. All rails are walked again
+     * when rails of the window change, or after a short while in case a change went unnoticed.
+     */
+    private static final class TrackAheadWindow {
+        private static final int MAX_AGE_TICKS = 20;
+        private static final int MAX_DROPPED_ENTRIES = 64;
+        private static final double SAME_POSITION_THRESHOLD_SQ = 0.01;
+        private final List<Entry> entries = new ArrayList<Entry>();
+        private TrackWalkingPoint walker = null;
+        private int first = 0; // Entry of the rails after the rails the head is on
+        private double headDistance = 0.0; // Distance from the head to the entry at first
+        private int trackChangeCounter = 0;
+        private int createdTicks = 0;
+
+        /**
+         * Moves this window along to the rails the head of the train is on.
+         * Walks the rails again if the head is not on any of the rails of this window.
+         *
+         * @param headState Current rail state of the head of the train
+         * @return True if there are rails after the rails the head is on
+         */
+        public boolean seek(RailState headState) {
+            // Find out where, and after what distance, the head leaves the rails it is on
+            RailState headEnd = headState.clone();
+            RailPath headPath = headEnd.loadRailLogic().getPath();
+            if (headPath.isEmpty()) {
+                return false;
+            }
+            this.headDistance = headPath.move(headEnd, Double.MAX_VALUE);
+
+            // Usually the head is still on the same rails, or has moved on to the next one
+            if (!this.entries.isEmpty() &&
+                (CommonUtil.getServerTicks() - this.createdTicks) <= MAX_AGE_TICKS &&
+                this.isTrackUnchanged())
+            {
+                for (int index = this.first; index < this.entries.size(); index++) {
+                    if (this.entries.get(index - 1).state.railPiece().equals(headState.railPiece()) &&
+                        this.entries.get(index).isEnteredFrom(headEnd.position()))
+                    {
+                        this.slide(index);
+                        return true;
+                    }
+                }
+            }
+
+            // Walk the rails again, starting at the head
+            this.entries.clear();
+            this.entries.add(new Entry(headState.clone(), 0.0));
+            this.first = 1;
+            this.trackChangeCounter = RailPieceCache.getTrackChangeCounter();
+            this.createdTicks = CommonUtil.getServerTicks();
+            this.walker = new TrackWalkingPoint(headState);
+            this.walker.moveFull(); // Returns the start position
+            return this.walkNext();
+        }
+
+        /**
+         * Gets the index of the entry of the rails after the rails the head is on
+         *
+         * @return first entry index
+         */
+        public int first() {
+            return this.first;
+        }
+
+        /**
+         * Gets an entry, walking more rails if needed
+         *
+         * @param index Index of the entry, at least {@link #first()}
+         * @return entry, or null if there are no more rails
+         */
+        public Entry get(int index) {
+            while (index >= this.entries.size()) {
+                if (!this.walkNext()) {
+                    return null;
+                }
+            }
+            return this.entries.get(index);
+        }
+
+        /**
+         * Gets the distance from the head of the train to the start of the rails of an entry
+         *
+         * @param index Index of the entry, at least {@link #first()}
+         * @return distance
+         */
+        public double distance(int index) {
+            return this.headDistance + this.entries.get(index).distance - this.entries.get(this.first).distance;
+        }
+
+        /**
+         * Checks whether any rails changed that are part of, or are next to, the rails
+         * of this window. Changes elsewhere do not affect this window.
+         *
+         * @return True if none of the rails of this window changed
+         */
+        private boolean isTrackUnchanged() {
+            List<Block> changes = RailPieceCache.getTrackChangesSince(this.trackChangeCounter);
+            if (changes == null) {
+                return false;
+            }
+            World world = this.entries.get(0).state.railWorld();
+            for (Block change : changes) {
+                if (change.getWorld() == world && this.isNearRails(change)) {
+                    return false;
+                }
+            }
+            this.trackChangeCounter = RailPieceCache.getTrackChangeCounter();
+            return true;
+        }
+
+        private boolean isNearRails(Block block) {
+            for (Entry entry : this.entries) {
+                IntVector3 pos = entry.railPosition;
+                if (Math.abs(pos.x - block.getX()) <= 1 &&
+                    Math.abs(pos.y - block.getY()) <= 1 &&
+                    Math.abs(pos.z - block.getZ()) <= 1)
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void slide(int index) {
+            this.first = index;
+            if (index > MAX_DROPPED_ENTRIES) {
+                this.entries.subList(0, index - 1).clear();
+                this.first = 1;
+            }
+        }
+
+        private boolean walkNext() {
+            if (this.walker == null || !this.walker.moveFull()) {
+                this.walker = null;
+                return false;
+            }
+            this.entries.add(new Entry(this.walker.state.clone(), this.walker.movedTotal));
+            return true;
+        }
+
+        public static final class Entry {
+            public final RailState state;
+            public final IntVector3 railPosition;
+            public final double distance;
+
+            public Entry(RailState state, double distance) {
+                this.state = state;
+                this.railPosition = new IntVector3(state.railBlock());
+                this.distance = distance;
+            }
+
+            public boolean isEnteredFrom(RailPath.Position position) {
+                RailPath.Position p = this.state.position();
+                double dx = p.posX - position.posX;
+                double dy = p.posY - position.posY;
+                double dz = p.posZ - position.posZ;
+                return (dx * dx + dy * dy + dz * dz) <= SAME_POSITION_THRESHOLD_SQ;
+            }
+        }
+    }
+
     private static class DesiredSpeed {
         public final double speed;
         public final double remaining;
@@ -4,7 +4,6 @@ import com.bergerkiller.bukkit.common.BlockLocation;
 import com.bergerkiller.bukkit.common.bases.IntVector3;
 import com.bergerkiller.bukkit.common.collections.BlockMap;
 import com.bergerkiller.bukkit.common.config.DataReader;
-import com.bergerkiller.bukkit.common.config.DataWriter;
 import com.bergerkiller.bukkit.common.utils.BlockUtil;
 import com.bergerkiller.bukkit.common.utils.LogicUtil;
 import com.bergerkiller.bukkit.common.utils.StreamUtil;
@@ -12,6 +11,7 @@ import com.bergerkiller.bukkit.tc.TrainCarts;
 import com.bergerkiller.bukkit.tc.cache.RailMemberCache;
 import com.bergerkiller.bukkit.tc.controller.MinecartGroup;
 import com.bergerkiller.bukkit.tc.controller.MinecartMember;
+import com.bergerkiller.bukkit.tc.utils.AsyncDataWriter;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.block.Block;
@@ -152,7 +152,7 @@ public final class DetectorRegion {
         if (autosave && !hasChanges) {
             return;
         }
-        new DataWriter(filename) {
+        new AsyncDataWriter(filename) {
             public void write(DataOutputStream stream) throws IOException {
                 stream.writeInt(regionsById.size());
                 for (DetectorRegion region : regionsById.values()) {
@@ -164,7 +164,7 @@ public final class DetectorRegion {
                     }
                 }
             }
-        }.write();
+        }.write(autosave);
         hasChanges = false;
     }
 
@@ -46,6 +46,7 @@ public class SignActionEvent extends Event implements Cancellable {
     private BlockFace facing;
     private final SignActionHeader header;
     private final Sign sign;
+    private final RailSignCache.TrackedSign trackedSign;
     private BlockFace[] watchedDirections;
     private RailPiece rail;
     private SignActionType actionType;
@@ -100,12 +101,17 @@ public class SignActionEvent extends Event implements Cancellable {
     }
 
     public SignActionEvent(RailSignCache.TrackedSign trackedSign) {
-        this(trackedSign.signBlock, trackedSign.sign, trackedSign.rail);
+        this(trackedSign.signBlock, trackedSign.sign, trackedSign.rail, trackedSign);
     }
 
     public SignActionEvent(final Block signblock, final Sign sign, RailPiece rail) {
+        this(signblock, sign, rail, null);
+    }
+
+    private SignActionEvent(final Block signblock, final Sign sign, RailPiece rail, RailSignCache.TrackedSign trackedSign) {
         this.signblock = signblock;
         this.sign = sign;
+        this.trackedSign = trackedSign;
         this.rail = rail;
         this.actionType = SignActionType.NONE;
         this.facing = null;
@@ -734,6 +740,16 @@ public class SignActionEvent extends Event implements Cancellable {
         return this.sign;
     }
 
+    /**
+     * Gets the tracked sign of the rails this event was created for, if this event was
+     * created for a sign detected by a train.
+     *
+     * @return tracked sign, or null if this event was not created for a tracked sign
+     */
+    public RailSignCache.TrackedSign getTrackedSign() {
+        return this.trackedSign;
+    }
+
     /**
      * Finds all signs below this sign that can extend the amount of lines
      *
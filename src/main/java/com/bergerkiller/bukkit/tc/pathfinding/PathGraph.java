@@ -0,0 +1,306 @@
+package com.bergerkiller.bukkit.tc.pathfinding;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable snapshot of the nodes and connections of a {@link PathWorld},
+ * stored in compact index-based arrays. Routes are computed using A* with
+ * the straight-line block distance between nodes as heuristic. All scratch
+ * state used while searching is kept per query, which means the graph can be
+ * searched while another search is still ongoing.<br>
+ * <br>
+ * A new snapshot is created by the PathWorld after its nodes or connections
+ * change.
+ */
+public final class PathGraph {
+    private static final PathConnection[] NO_ROUTE = new PathConnection[0];
+    private final PathNode[] nodes;
+    private final int[] nodeX, nodeY, nodeZ;
+    private final int[] edgeOffset; // Per node: index of first edge, with one extra element at the end
+    private final int[] edgeSource;
+    private final int[] edgeTarget;
+    private final double[] edgeDistance;
+    private final PathConnection[] edgeConnection;
+    private final int[] component;
+    private final double heuristicFactor;
+
+    private PathGraph(Collection<PathNode> pathNodes) {
+        int nodeCount = pathNodes.size();
+        this.nodes = pathNodes.toArray(new PathNode[nodeCount]);
+        this.nodeX = new int[nodeCount];
+        this.nodeY = new int[nodeCount];
+        this.nodeZ = new int[nodeCount];
+        this.edgeOffset = new int[nodeCount + 1];
+
+        int edgeCount = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            PathNode node = this.nodes[i];
+            node.graphIndex = i;
+            this.nodeX[i] = node.location.x;
+            this.nodeY[i] = node.location.y;
+            this.nodeZ[i] = node.location.z;
+            this.edgeOffset[i] = edgeCount;
+            edgeCount += node.getNeighbours().size();
+        }
+        this.edgeOffset[nodeCount] = edgeCount;
+
+        this.edgeSource = new int[edgeCount];
+        this.edgeTarget = new int[edgeCount];
+        this.edgeDistance = new double[edgeCount];
+        this.edgeConnection = new PathConnection[edgeCount];
+
+        // Fill edges. Connections to nodes no longer part of this world are dropped
+        // by pointing them at -1, which the search skips.
+        // While doing so, compute the largest factor of the straight-line distance
+        // that never exceeds the distance of a connection. This keeps the heuristic
+        // admissible, so that routes found are always the shortest ones.
+        double factor = 1.0;
+        int e = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            for (PathConnection connection : this.nodes[i].getNeighbours()) {
+                int target = connection.destination.graphIndex;
+                if (target < 0 || target >= nodeCount || this.nodes[target] != connection.destination) {
+                    target = -1;
+                } else {
+                    double straight = this.straightDistance(i, target);
+                    if (straight > connection.distance) {
+                        factor = Math.min(factor, connection.distance / straight);
+                    }
+                }
+                this.edgeSource[e] = i;
+                this.edgeTarget[e] = target;
+                this.edgeDistance[e] = connection.distance;
+                this.edgeConnection[e] = connection;
+                e++;
+            }
+        }
+        this.heuristicFactor = factor;
+
+        // Label all nodes with the (weakly) connected component they are part of
+        this.component = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            this.component[i] = i;
+        }
+        for (e = 0; e < edgeCount; e++) {
+            if (this.edgeTarget[e] != -1) {
+                int a = findComponent(this.component, this.edgeSource[e]);
+                int b = findComponent(this.component, this.edgeTarget[e]);
+                if (a != b) {
+                    this.component[Math.max(a, b)] = Math.min(a, b);
+                }
+            }
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            this.component[i] = findComponent(this.component, i);
+        }
+    }
+
+    private static int findComponent(int[] component, int node) {
+        while (component[node] != node) {
+            node = component[node] = component[component[node]];
+        }
+        return node;
+    }
+
+    /**
+     * Creates a new graph snapshot of the nodes specified
+     *
+     * @param nodes Path nodes to include
+     * @return graph
+     */
+    public static PathGraph create(Collection<PathNode> nodes) {
+        return new PathGraph(nodes);
+    }
+
+    /**
+     * Gets whether a path node is part of this graph
+     *
+     * @param node
+     * @return True if the node is part of this graph
+     */
+    public boolean contains(PathNode node) {
+        int index = node.graphIndex;
+        return index >= 0 && index < this.nodes.length && this.nodes[index] == node;
+    }
+
+    /**
+     * Gets a number identifying the group of nodes that are connected with each other,
+     * ignoring the direction of connections. Two nodes with a different component
+     * can never reach one another.
+     *
+     * @param node
+     * @return component of the node, or -1 if the node is not part of this graph
+     */
+    public int getComponent(PathNode node) {
+        return this.contains(node) ? this.component[node.graphIndex] : -1;
+    }
+
+    /**
+     * Finds the shortest route from one node to another. The first connection
+     * in the route is always one of the neighbours of the start node. If the
+     * start node is the same as the destination, a route going round back to
+     * the start node is searched for.
+     *
+     * @param from Node to start at
+     * @param destination Node to reach
+     * @return connections of the route taken, or an empty array if no route exists
+     */
+    public PathConnection[] findRoute(PathNode from, PathNode destination) {
+        if (!this.contains(from) || !this.contains(destination)) {
+            return NO_ROUTE;
+        }
+
+        int start = from.graphIndex;
+        int goal = destination.graphIndex;
+        Query query = new Query(this.nodes.length);
+
+        // Seed with the connections of the start node. The start node itself is not
+        // marked as visited, which allows routes that loop back to the start.
+        for (int e = this.edgeOffset[start]; e < this.edgeOffset[start + 1]; e++) {
+            query.relax(this.edgeTarget[e], e, this.edgeDistance[e], this.heuristic(this.edgeTarget[e], goal));
+        }
+
+        // A* search
+        int node;
+        while ((node = query.poll()) != -1) {
+            if (node == goal) {
+                return query.buildRoute(this, start, goal);
+            }
+            double distance = query.distance[node];
+            for (int e = this.edgeOffset[node]; e < this.edgeOffset[node + 1]; e++) {
+                int target = this.edgeTarget[e];
+                if (target != -1 && !query.closed[target]) {
+                    query.relax(target, e, distance + this.edgeDistance[e], this.heuristic(target, goal));
+                }
+            }
+        }
+        return NO_ROUTE;
+    }
+
+    private double heuristic(int node, int goal) {
+        return (node == -1) ? 0.0 : (this.heuristicFactor * this.straightDistance(node, goal));
+    }
+
+    private double straightDistance(int a, int b) {
+        double dx = this.nodeX[a] - this.nodeX[b];
+        double dy = this.nodeY[a] - this.nodeY[b];
+        double dz = this.nodeZ[a] - this.nodeZ[b];
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    /**
+     * Scratch state of a single route search
+     */
+    private static final class Query {
+        public final double[] distance;
+        public final int[] previousEdge;
+        public final boolean[] closed;
+        private int[] heapNode;
+        private double[] heapCost;
+        private int heapSize;
+
+        public Query(int nodeCount) {
+            this.distance = new double[nodeCount];
+            this.previousEdge = new int[nodeCount];
+            this.closed = new boolean[nodeCount];
+            Arrays.fill(this.distance, Double.MAX_VALUE);
+            Arrays.fill(this.previousEdge, -1);
+            this.heapNode = new int[16];
+            this.heapCost = new double[16];
+            this.heapSize = 0;
+        }
+
+        /**
+         * Stores a new distance to a node, if it is shorter than the distance found before
+         */
+        public void relax(int node, int edge, double newDistance, double heuristic) {
+            if (node != -1 && newDistance < this.distance[node]) {
+                this.distance[node] = newDistance;
+                this.previousEdge[node] = edge;
+                this.push(node, newDistance + heuristic);
+            }
+        }
+
+        /**
+         * Takes the open node with the lowest estimated cost
+         *
+         * @return node index, or -1 if no more nodes are open
+         */
+        public int poll() {
+            while (this.heapSize > 0) {
+                int node = this.heapNode[0];
+                this.heapSize--;
+                if (this.heapSize > 0) {
+                    this.siftDown(this.heapNode[this.heapSize], this.heapCost[this.heapSize]);
+                }
+                if (!this.closed[node]) {
+                    this.closed[node] = true;
+                    return node;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Walks back from the goal node to the start node, collecting all connections
+         * that were taken to get there.
+         */
+        public PathConnection[] buildRoute(PathGraph graph, int start, int goal) {
+            int length = 0;
+            int node = goal;
+            do {
+                node = graph.edgeSource[this.previousEdge[node]];
+                length++;
+            } while (node != start);
+
+            PathConnection[] route = new PathConnection[length];
+            node = goal;
+            for (int i = length - 1; i >= 0; i--) {
+                int edge = this.previousEdge[node];
+                route[i] = graph.edgeConnection[edge];
+                node = graph.edgeSource[edge];
+            }
+            return route;
+        }
+
+        private void push(int node, double cost) {
+            if (this.heapSize == this.heapNode.length) {
+                this.heapNode = Arrays.copyOf(this.heapNode, this.heapSize * 2);
+                this.heapCost = Arrays.copyOf(this.heapCost, this.heapSize * 2);
+            }
+            int i = this.heapSize++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (this.heapCost[parent] <= cost) {
+                    break;
+                }
+                this.heapNode[i] = this.heapNode[parent];
+                this.heapCost[i] = this.heapCost[parent];
+                i = parent;
+            }
+            this.heapNode[i] = node;
+            this.heapCost[i] = cost;
+        }
+
+        private void siftDown(int node, double cost) {
+            int i = 0;
+            int half = this.heapSize >>> 1;
+            while (i < half) {
+                int child = (i << 1) + 1;
+                int right = child + 1;
+                if (right < this.heapSize && this.heapCost[right] < this.heapCost[child]) {
+                    child = right;
+                }
+                if (cost <= this.heapCost[child]) {
+                    break;
+                }
+                this.heapNode[i] = this.heapNode[child];
+                this.heapCost[i] = this.heapCost[child];
+                i = child;
+            }
+            this.heapNode[i] = node;
+            this.heapCost[i] = cost;
+        }
+    }
+}
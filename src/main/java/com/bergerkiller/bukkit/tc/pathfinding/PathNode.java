@@ -15,8 +15,7 @@ public class PathNode {
     private final Set<String> names = new HashSet<>();
     private final List<PathConnection> neighbors = new ArrayList<>(3);
     public int index;
-    private double lastDistance;
-    private PathConnection lastTaken;
+    int graphIndex = -1;
     private boolean isRailSwitchable;
 
     protected PathNode(PathWorld world, BlockLocation location) {
@@ -90,31 +89,6 @@ public class PathNode {
         return TrainCarts.plugin.getPathProvider().getWorld(location.world).getOrCreateAtRail(location);
     }
 
-    private static double getDistanceTo(PathConnection from, PathConnection conn, double currentDistance, double maxDistance, PathNode destination) {
-        final PathNode node = conn.destination;
-        currentDistance += conn.distance;
-        // Consider taking turns as one distance longer
-        // This avoids the excessive use of turns in 2-way 'X' intersections
-        if (destination == node) {
-            return currentDistance;
-        }
-        // Initial distance check before continuing
-        if (node.lastDistance < currentDistance || currentDistance > maxDistance) {
-            return Integer.MAX_VALUE;
-        }
-        node.lastDistance = currentDistance;
-        // Check all neighbors and obtain the lowest distance recursively
-        double distance;
-        for (PathConnection connection : node.neighbors) {
-            distance = getDistanceTo(conn, connection, currentDistance, maxDistance, destination);
-            if (maxDistance > distance) {
-                maxDistance = distance;
-                node.lastTaken = connection;
-            }
-        }
-        return maxDistance;
-    }
-
     /**
      * Gets the world which this node is part of
      * 
@@ -142,25 +116,7 @@ public class PathNode {
      * @return A connection, or null if none could be found
      */
     public PathConnection findConnection(PathNode destination) {
-        for (PathNode node : world.getNodes()) {
-            node.lastDistance = Integer.MAX_VALUE;
-            node.lastTaken = null;
-        }
-        double minDistance = Integer.MAX_VALUE;
-        double distance;
-        final PathConnection from = new PathConnection(this, 0, "");
-        for (PathConnection connection : this.neighbors) {
-            distance = getDistanceTo(from, connection, 0.0, minDistance, destination);
-            if (minDistance > distance) {
-                minDistance = distance;
-                this.lastTaken = connection;
-            }
-        }
-        if (this.lastTaken == null) {
-            return null;
-        } else {
-            return new PathConnection(destination, minDistance, this.lastTaken.junctionName);
-        }
+        return world.getRoutingTable().findConnection(world.getGraph(), this, destination);
     }
 
     /**
@@ -170,16 +126,7 @@ public class PathNode {
      * @return the route taken, or an empty array if none could be found
      */
     public PathConnection[] findRoute(PathNode destination) {
-        if (findConnection(destination) == null) {
-            return new PathConnection[0];
-        }
-        List<PathConnection> route = new ArrayList<>();
-        PathConnection conn = this.lastTaken;
-        while (conn != null) {
-            route.add(conn);
-            conn = conn.destination.lastTaken;
-        }
-        return route.toArray(new PathConnection[0]);
+        return world.getGraph().findRoute(this, destination);
     }
 
     /**
@@ -214,10 +161,25 @@ public class PathNode {
     }
 
     protected void addNeighbourFast(PathConnection connection) {
+        world.invalidateRoutes(this);
+        world.invalidateRoutes(connection.destination);
         this.neighbors.add(connection);
     }
 
+    /**
+     * Adds all the connections of this node loaded from file at once
+     *
+     * @param connections Connections to add
+     */
+    protected void loadNeighbours(PathConnection[] connections) {
+        if (connections.length > 0) {
+            world.invalidateGraph();
+            Collections.addAll(this.neighbors, connections);
+        }
+    }
+
     public void clear() {
+        world.invalidateRoutes(this);
         this.neighbors.clear();
         for (PathNode node : world.getNodes()) {
             Iterator<PathConnection> iter = node.neighbors.iterator();
@@ -372,6 +334,7 @@ public class PathNode {
 
         // Remove all the reachable nodes we have collected, deleting the entire network
         // Schedule all these nodes for path finding
+        world.invalidateRoutes(this);
         for (PathNode node : reachable) {
             node.neighbors.clear();
             world.removeFromMapping(node);
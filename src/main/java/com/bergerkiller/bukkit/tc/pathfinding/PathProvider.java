@@ -3,8 +3,6 @@ package com.bergerkiller.bukkit.tc.pathfinding;
 import com.bergerkiller.bukkit.common.BlockLocation;
 import com.bergerkiller.bukkit.common.Task;
 import com.bergerkiller.bukkit.common.config.CompressedDataReader;
-import com.bergerkiller.bukkit.common.config.CompressedDataWriter;
-import com.bergerkiller.bukkit.common.utils.StringUtil;
 import com.bergerkiller.bukkit.tc.TCConfig;
 import com.bergerkiller.bukkit.tc.TrainCarts;
 import com.bergerkiller.bukkit.tc.cache.RailSignCache;
@@ -17,6 +15,7 @@ import com.bergerkiller.bukkit.tc.events.SignActionEvent;
 import com.bergerkiller.bukkit.tc.rails.type.RailType;
 import com.bergerkiller.bukkit.tc.signactions.SignAction;
 import com.bergerkiller.bukkit.tc.signactions.SignActionType;
+import com.bergerkiller.bukkit.tc.utils.AsyncDataWriter;
 import com.bergerkiller.bukkit.tc.utils.TrackWalkingPoint;
 
 import org.bukkit.Location;
@@ -31,6 +30,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -41,8 +41,11 @@ import java.util.logging.Level;
 
 public class PathProvider extends Task {
     private static final String SWITCHER_NAME_FALLBACK = "::traincarts::switchable::";
+    private static final int FILE_MARKER = -1; // Legacy files start with the (positive) node count instead
+    private static final int FILE_VERSION = 3;
     private static final int STEP_COUNT = 100; // Steps performed per timing check
     private static final int MAX_PROCESSING_PER_TICK = 30; // Maximum processing time in Ms per tick
+    private static final int MAX_SCRATCH_CACHE_SIZE = 100000; // Maximum number of rail blocks cached while processing
     public static boolean DEBUG_MODE = false;
     private final Map<String, PathWorld> worlds = new HashMap<String, PathWorld>();
     private final List<PathRoutingHandler> handlers = new ArrayList<PathRoutingHandler>();
@@ -120,34 +123,16 @@ public class PathProvider extends Task {
                 // clear all previous data by clearing the worlds mapping
                 worlds.clear();
 
-                // Initializing the nodes
+                // Files of the current format start with a marker, legacy files with the node count
                 int count = stream.readInt();
-                PathNode[] parr = new PathNode[count];
-                for (int i = 0; i < count; i++) {
-                    String name = stream.readUTF();
-                    BlockLocation loc = new BlockLocation(stream.readUTF(), stream.readInt(), stream.readInt(), stream.readInt());
-                    parr[i] = getWorld(loc.world).addNode(loc);
-                    if (name.isEmpty()) {
-                        // No name, is a switcher
-                        parr[i].addSwitcher();
-                    } else {
-                        // Go by all newline-separated names
-                        for (String name_part : name.split("\n")) {
-                            if (name_part.equals(SWITCHER_NAME_FALLBACK)) {
-                                parr[i].addSwitcher();
-                            } else {
-                                parr[i].addName(name_part);
-                            }
-                        }
-                    }
-                }
-
-                // Generating connections
-                for (PathNode node : parr) {
-                    int ncount = stream.readInt();
-                    for (int i = 0; i < ncount; i++) {
-                        node.addNeighbourFast(new PathConnection(parr[stream.readInt()], stream));
+                if (count == FILE_MARKER) {
+                    int version = stream.readInt();
+                    if (version != 2 && version != FILE_VERSION) {
+                        throw new IOException("Unsupported destinations file version: " + version);
                     }
+                    readWorlds(stream, version);
+                } else {
+                    readLegacy(stream, count);
                 }
 
                 // Cancel all scheduled (pending) nodes
@@ -162,6 +147,115 @@ public class PathProvider extends Task {
         }
     }
 
+    private void readLegacy(DataInputStream stream, int count) throws IOException {
+        // Initializing the nodes
+        PathNode[] parr = new PathNode[count];
+        for (int i = 0; i < count; i++) {
+            String name = stream.readUTF();
+            BlockLocation loc = new BlockLocation(stream.readUTF(), stream.readInt(), stream.readInt(), stream.readInt());
+            parr[i] = getWorld(loc.world).addNode(loc);
+            if (name.isEmpty()) {
+                // No name, is a switcher
+                parr[i].addSwitcher();
+            } else {
+                // Go by all newline-separated names
+                for (String name_part : name.split("\n")) {
+                    if (name_part.equals(SWITCHER_NAME_FALLBACK)) {
+                        parr[i].addSwitcher();
+                    } else {
+                        parr[i].addName(name_part);
+                    }
+                }
+            }
+        }
+
+        // Generating connections
+        for (PathNode node : parr) {
+            int ncount = stream.readInt();
+            for (int i = 0; i < ncount; i++) {
+                node.addNeighbourFast(new PathConnection(parr[stream.readInt()], stream));
+            }
+        }
+    }
+
+    private void readWorlds(DataInputStream stream, int version) throws IOException {
+        // Table of all world, destination and junction names
+        String[] strings = new String[stream.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = stream.readUTF();
+        }
+
+        int worldCount = stream.readInt();
+        PathNode[][] nodesPerWorld = new PathNode[worldCount][];
+        Map<String, PathNode[]> nodesByWorldName = new HashMap<String, PathNode[]>();
+        for (int w = 0; w < worldCount; w++) {
+            String worldName = strings[stream.readInt()];
+            PathWorld world = getWorld(worldName);
+
+            // Node coordinates are stored as columns
+            int count = stream.readInt();
+            int[] x = readInts(stream, count);
+            int[] y = readInts(stream, count);
+            int[] z = readInts(stream, count);
+            PathNode[] parr = new PathNode[count];
+            for (int i = 0; i < count; i++) {
+                parr[i] = world.loadNode(new BlockLocation(worldName, x[i], y[i], z[i]));
+            }
+
+            // Switchers and destination names of the nodes
+            for (PathNode node : parr) {
+                if (stream.readBoolean()) {
+                    node.addSwitcher();
+                }
+                int nameCount = stream.readInt();
+                for (int i = 0; i < nameCount; i++) {
+                    node.addName(strings[stream.readInt()]);
+                }
+            }
+
+            nodesPerWorld[w] = parr;
+            nodesByWorldName.put(worldName, parr);
+
+            // Version 2 stores the connections to other nodes on the same world right away
+            if (version == 2) {
+                for (PathNode node : parr) {
+                    PathConnection[] connections = new PathConnection[stream.readInt()];
+                    for (int i = 0; i < connections.length; i++) {
+                        PathNode destination = parr[stream.readInt()];
+                        double distance = stream.readDouble();
+                        String junctionName = strings[stream.readInt()];
+                        connections[i] = new PathConnection(destination, distance, junctionName);
+                    }
+                    node.loadNeighbours(connections);
+                }
+            }
+        }
+
+        // Connections are stored after all nodes, as they can refer to nodes on other worlds
+        if (version != 2) {
+            for (PathNode[] parr : nodesPerWorld) {
+                for (PathNode node : parr) {
+                    PathConnection[] connections = new PathConnection[stream.readInt()];
+                    for (int i = 0; i < connections.length; i++) {
+                        PathNode destination = nodesByWorldName.get(strings[stream.readInt()])[stream.readInt()];
+                        double distance = stream.readDouble();
+                        String junctionName = strings[stream.readInt()];
+                        connections[i] = new PathConnection(destination, distance, junctionName);
+                    }
+                    node.loadNeighbours(connections);
+                }
+            }
+        }
+    }
+
+    private static int[] readInts(DataInputStream stream, int count) throws IOException {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = stream.readInt();
+        }
+        return values;
+    }
+
     public void disable() {
         this.stop();
 
@@ -174,54 +268,79 @@ public class PathProvider extends Task {
         if (autosave && !hasChanges) {
             return;
         }
-        new CompressedDataWriter(filename) {
+        new AsyncDataWriter(filename, true) {
             public void write(DataOutputStream stream) throws IOException {
-                // Compute and write total amount of nodes
-                int totalNodeCount = 0;
-                for (PathWorld world : getWorlds()) {
-                    totalNodeCount += world.getNodes().size();
-                }
-                stream.writeInt(totalNodeCount);
+                stream.writeInt(FILE_MARKER);
+                stream.writeInt(FILE_VERSION);
 
-                // Generate indices
-                int i = 0;
+                // Generate indices, which are local to each world, and the table of names
+                Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
                 for (PathWorld world : getWorlds()) {
+                    addString(strings, world.getName());
+                    int i = 0;
                     for (PathNode node : world.getNodes()) {
-                        node.index = i;
-                        if (node.containsSwitcher()) {
-                            if (node.getNames().isEmpty()) {
-                                // Only switcher sign, write an empty String
-                                stream.writeUTF("");
-                            } else {
-                                // Switcher and destination sign are both at the same block
-                                // To indicate that, write the switcher name fallback in addition to the names
-                                stream.writeUTF(SWITCHER_NAME_FALLBACK + "\n" + StringUtil.join("\n", node.getNames()));
-                            }
-                        } else {
-                            // Only destination sign(s), write names
-                            stream.writeUTF(StringUtil.join("\n", node.getNames()));
+                        node.index = i++;
+                        for (String name : node.getNames()) {
+                            addString(strings, name);
+                        }
+                        for (PathConnection conn : node.getNeighbours()) {
+                            addString(strings, conn.junctionName);
                         }
-                        stream.writeUTF(node.location.world);
+                    }
+                }
+                stream.writeInt(strings.size());
+                for (String string : strings.keySet()) {
+                    stream.writeUTF(string);
+                }
+
+                // Write out the nodes of every world as a separate section
+                stream.writeInt(worlds.size());
+                for (PathWorld world : getWorlds()) {
+                    Collection<PathNode> nodes = world.getNodes();
+                    stream.writeInt(strings.get(world.getName()).intValue());
+                    stream.writeInt(nodes.size());
+                    for (PathNode node : nodes) {
                         stream.writeInt(node.location.x);
+                    }
+                    for (PathNode node : nodes) {
                         stream.writeInt(node.location.y);
+                    }
+                    for (PathNode node : nodes) {
                         stream.writeInt(node.location.z);
-                        i++;
+                    }
+                    for (PathNode node : nodes) {
+                        stream.writeBoolean(node.containsSwitcher());
+                        stream.writeInt(node.getNames().size());
+                        for (String name : node.getNames()) {
+                            stream.writeInt(strings.get(name).intValue());
+                        }
                     }
                 }
 
-                // Write out connections
+                // Write out the connections of the nodes of every world, in the same order
+                // Connections can lead to another world, so the world of the destination is stored too
                 for (PathWorld world : getWorlds()) {
                     for (PathNode node : world.getNodes()) {
-                        stream.writeInt(node.getNeighbours().size());
-                        for (PathConnection conn : node.getNeighbours()) {
-                            conn.writeTo(stream);
+                        Collection<PathConnection> connections = node.getNeighbours();
+                        stream.writeInt(connections.size());
+                        for (PathConnection conn : connections) {
+                            stream.writeInt(strings.get(conn.destination.getWorld().getName()).intValue());
+                            stream.writeInt(conn.destination.index);
+                            stream.writeDouble(conn.distance);
+                            stream.writeInt(strings.get(conn.junctionName).intValue());
                         }
                     }
                 }
             }
-        }.write();
+        }.write(autosave);
         hasChanges = false;
     }
+
+    private static void addString(Map<String, Integer> strings, String string) {
+        if (!strings.containsKey(string)) {
+            strings.put(string, Integer.valueOf(strings.size()));
+        }
+    }
     
     /**
      * Gets a collection of worlds on which path data is stored
@@ -332,19 +451,58 @@ public class PathProvider extends Task {
 
     @Override
     public Task stop() {
-        addPendingNodes();
-        if (!this.pendingOperations.isEmpty()) {
-            TrainCarts.plugin.log(Level.INFO, "Performing " + this.pendingOperations.size() + " pending path finding operations (can take a while)...");
-            while (!this.pendingOperations.isEmpty()) {
-                PathFindOperation operation = this.pendingOperations.poll();
-                while (operation.next()) ;
+        setScratchCaches(true);
+        try {
+            addPendingNodes();
+            if (!this.pendingOperations.isEmpty()) {
+                TrainCarts.plugin.log(Level.INFO, "Performing " + this.pendingOperations.size() + " pending path finding operations (can take a while)...");
+                while (!this.pendingOperations.isEmpty()) {
+                    PathFindOperation operation = this.pendingOperations.poll();
+                    while (operation.next()) ;
+                }
             }
+        } finally {
+            setScratchCaches(false);
+            RailSignCache.resetScratch();
+            RailPieceCache.resetScratch();
         }
         return super.stop();
     }
 
+    /**
+     * Switches the rail and sign caches to, or from, the scratch caches used while
+     * discovering new path nodes. Rails visited while finding paths are stored in
+     * there, so that the caches used by trains are left alone.
+     *
+     * @param scratch Whether to use the scratch caches
+     */
+    private static void setScratchCaches(boolean scratch) {
+        RailSignCache.setScratchMode(scratch);
+        RailPieceCache.setScratchMode(scratch);
+    }
+
     @Override
     public void run() {
+        if (!this.isProcessing()) {
+            return;
+        }
+
+        setScratchCaches(true);
+        try {
+            processPending();
+        } finally {
+            setScratchCaches(false);
+        }
+
+        // Once all done, or when too much has been cached, wipe the scratch caches
+        // This avoids running out of memory on very large networks
+        if (!this.isProcessing() || RailPieceCache.getScratchSize() > MAX_SCRATCH_CACHE_SIZE) {
+            RailSignCache.resetScratch();
+            RailPieceCache.resetScratch();
+        }
+    }
+
+    private void processPending() {
         if (this.pendingOperations.isEmpty() && !this.pendingDiscovery.isEmpty()) {
             addNewlyDiscovered();
         }
@@ -377,11 +535,6 @@ public class PathProvider extends Task {
                 break; // Ran out of time
             }
         }
-
-        // Important: wipe any rail and sign caches we have polluted with temporary block data
-        // This will momentarily cause the plugin to run slower, but we must do this or risk out of memory!
-        RailSignCache.reset();
-        RailPieceCache.reset();
     }
 
     // Discovers new switchers and destination signs. Stops upon the first new node found.
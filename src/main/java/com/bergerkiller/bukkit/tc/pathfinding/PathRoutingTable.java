@@ -0,0 +1,100 @@
+package com.bergerkiller.bukkit.tc.pathfinding;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Caches the connection to take at a path node to reach a particular destination node.
+ * Routes are computed lazily the first time they are requested. When nodes or
+ * connections change, only the routes starting in the group of connected nodes
+ * affected by the change are discarded.
+ */
+public class PathRoutingTable {
+    private static final PathConnection NO_CONNECTION = new PathConnection(null, 0.0, "");
+    private final Map<PathNode, Map<PathNode, PathConnection>> routes = new HashMap<>();
+    private PathGraph labels = null;
+
+    /**
+     * Finds the connection to take at a node to reach a destination, using the
+     * routes stored in this table if available.
+     *
+     * @param graph Current graph of the world the nodes are on
+     * @param from Node to start at
+     * @param destination Node to reach
+     * @return A connection, or null if none could be found
+     */
+    public PathConnection findConnection(PathGraph graph, PathNode from, PathNode destination) {
+        this.labels = graph;
+
+        Map<PathNode, PathConnection> fromRoutes = this.routes.computeIfAbsent(from, n -> new HashMap<>());
+        PathConnection connection = fromRoutes.get(destination);
+        if (connection == null) {
+            PathConnection[] route = graph.findRoute(from, destination);
+            if (route.length == 0) {
+                connection = NO_CONNECTION;
+            } else {
+                double distance = 0.0;
+                for (PathConnection routeConnection : route) {
+                    distance += routeConnection.distance;
+                }
+                connection = new PathConnection(destination, distance, route[0].junctionName);
+            }
+            fromRoutes.put(destination, connection);
+        }
+        return (connection == NO_CONNECTION) ? null : connection;
+    }
+
+    /**
+     * Sets the graph used to find out what nodes are connected with each other when
+     * invalidating routes. Must be called every time a new graph snapshot is created,
+     * because creating a snapshot re-assigns the indices of the nodes in older snapshots.
+     *
+     * @param graph Latest graph of the world the nodes are on
+     */
+    void setGraph(PathGraph graph) {
+        this.labels = graph;
+    }
+
+    /**
+     * Discards all stored routes starting at nodes that are connected with the node
+     * specified. Must be called before the connections of the node are changed.
+     *
+     * @param node Node that is about to change
+     */
+    public void invalidate(PathNode node) {
+        if (this.routes.isEmpty()) {
+            return;
+        }
+
+        // Node is not known, so no routes were computed that used it
+        // If routes from the node are stored anyway, it is not known which other
+        // routes pass through it, so all routes are discarded
+        int component = (this.labels == null) ? -1 : this.labels.getComponent(node);
+        if (component == -1) {
+            if (this.routes.containsKey(node)) {
+                this.clear();
+            }
+            return;
+        }
+
+        // Routes computed on older graphs were of nodes not affected by changes since,
+        // so their component is still the same in this graph. Nodes not part of this
+        // graph can not be checked, so their routes are discarded to be safe.
+        Iterator<PathNode> iter = this.routes.keySet().iterator();
+        while (iter.hasNext()) {
+            int nodeComponent = this.labels.getComponent(iter.next());
+            if (nodeComponent == component || nodeComponent == -1) {
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * Discards all stored routes
+     */
+    public void clear() {
+        this.routes.clear();
+        this.labels = null;
+    }
+}
@@ -18,12 +18,15 @@ public class PathWorld {
     private final String _name;
     private final BlockMap<PathNode> _blockNodes;
     private final Map<String, PathNode> _nodes;
+    private PathGraph _graph;
+    private final PathRoutingTable _routingTable;
 
     public PathWorld(PathProvider provider, String worldName) {
         _provider = provider;
         _name = worldName;
         _blockNodes = new BlockMap<>();
         _nodes = new HashMap<>();
+        _routingTable = new PathRoutingTable();
     }
 
     /**
@@ -64,6 +67,51 @@ public class PathWorld {
         return _blockNodes.values();
     }
 
+    /**
+     * Gets a snapshot of all nodes and connections on this world, used to find
+     * routes between nodes. The snapshot is re-created when nodes or connections
+     * have changed since it was last created.
+     *
+     * @return path graph
+     */
+    public PathGraph getGraph() {
+        PathGraph graph = _graph;
+        if (graph == null) {
+            _graph = graph = PathGraph.create(getNodes());
+            _routingTable.setGraph(graph);
+        }
+        return graph;
+    }
+
+    /**
+     * Gets the table storing the junction to take at a node to reach a destination
+     *
+     * @return routing table
+     */
+    public PathRoutingTable getRoutingTable() {
+        return _routingTable;
+    }
+
+    /**
+     * Discards the current path graph snapshot, so that it is re-created
+     * the next time routes are searched
+     */
+    protected void invalidateGraph() {
+        _graph = null;
+    }
+
+    /**
+     * Discards the current path graph snapshot, and all routes stored in the routing table
+     * that start at nodes connected with the node specified. Must be called before the
+     * connections of the node change.
+     *
+     * @param node Node that is about to change
+     */
+    protected void invalidateRoutes(PathNode node) {
+        _routingTable.invalidate(node);
+        _graph = null;
+    }
+
     public PathNode removeAtRail(Block railBlock) {
         PathNode node = _blockNodes.remove(railBlock);
         if (node != null) node.remove();
@@ -86,6 +134,19 @@ public class PathWorld {
         return node;
     }
 
+    /**
+     * Adds a node that was loaded from file. Unlike {@link #addNode(BlockLocation)},
+     * the node is not scheduled for discovering its connections.
+     *
+     * @param location Rail block location of the node
+     * @return added node
+     */
+    protected PathNode loadNode(BlockLocation location) {
+        PathNode node = new PathNode(this, location);
+        addToMapping(node);
+        return node;
+    }
+
     public void rerouteAll() {
         for (BlockLocation location : getRailBlocks()) {
             _provider.discoverFromRail(location);
@@ -96,6 +157,8 @@ public class PathWorld {
     public void clearAll() {
         _nodes.clear();
         _blockNodes.clear();
+        _routingTable.clear();
+        invalidateGraph();
         _provider.markChanged();
     }
 
@@ -119,6 +182,7 @@ public class PathWorld {
         }
         _blockNodes.put(node.location, node);
         _nodes.put(node.location.toString(), node);
+        invalidateGraph();
         _provider.markChanged();
     }
 
@@ -134,6 +198,7 @@ public class PathWorld {
             _blockNodes.put(node.location, removed); // restore
         } else if (removed != null) {
             _nodes.remove(node.location.toString());
+            invalidateGraph();
         }
         _provider.markChanged();
     }
@@ -72,8 +72,27 @@ public class CartProperties extends CartPropertiesStore implements IProperties {
         return "cart";
     }
 
+    /**
+     * {@inheritDoc}<br>
+     * <br>
+     * Property values changed since the last time the configuration was accessed
+     * are written to it first.
+     */
     @Override
     public final ConfigurationNode getConfig() {
+        this.standardProperties.writePendingChanges(this.config);
+        return this.config;
+    }
+
+    /**
+     * Gets the configuration of these properties, without first writing property
+     * values changed since to it. Properties stored only in the configuration use
+     * this to read and write their own values, so that reading them does not write
+     * out all changed field-backed properties.
+     *
+     * @return configuration, which might not contain all changed property values
+     */
+    public final ConfigurationNode getRawConfig() {
         return this.config;
     }
 
@@ -670,7 +689,8 @@ public class CartProperties extends CartPropertiesStore implements IProperties {
 
     @Override
     public void load(ConfigurationNode node) {
-        // Wipe all previous configuration
+        // Wipe all previous configuration, including changes not yet written to it
+        this.standardProperties.discardPendingChanges();
         this.config.clear();
 
         // Deep-copy input cart configuration to self cart configuration
@@ -703,7 +723,7 @@ public class CartProperties extends CartPropertiesStore implements IProperties {
      * @return saved {@link #getConfig()}
      */
     public ConfigurationNode saveToConfig() {
-        return this.config;
+        return this.getConfig();
     }
 
     /**
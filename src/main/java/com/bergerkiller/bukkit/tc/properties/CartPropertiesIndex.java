@@ -0,0 +1,128 @@
+package com.bergerkiller.bukkit.tc.properties;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.bergerkiller.bukkit.tc.Util;
+
+/**
+ * Tracks what carts have a particular text property value, such as a tag or
+ * destination. This allows finding the trains that have a value without checking
+ * the properties of every train on the server. Values are sorted, so that all
+ * values starting with the same text can be looked up as well.<br>
+ * <br>
+ * The index is updated by the properties when their value changes.
+ */
+public final class CartPropertiesIndex {
+    public static final CartPropertiesIndex TAGS = new CartPropertiesIndex();
+    public static final CartPropertiesIndex OWNERS = new CartPropertiesIndex();
+    public static final CartPropertiesIndex DESTINATIONS = new CartPropertiesIndex();
+    private final TreeMap<String, Set<CartProperties>> cartsByValue = new TreeMap<>();
+    private final Map<CartProperties, Collection<String>> valuesByCart = new IdentityHashMap<>();
+
+    private CartPropertiesIndex() {
+    }
+
+    /**
+     * Updates the values a cart has in this index
+     *
+     * @param cart Cart properties
+     * @param values New values of the cart, empty if the cart has none
+     */
+    public void update(CartProperties cart, Collection<String> values) {
+        Collection<String> oldValues = this.valuesByCart.get(cart);
+        if (oldValues == null) {
+            if (values.isEmpty()) {
+                return;
+            }
+        } else if (oldValues.equals(values)) {
+            return;
+        } else {
+            this.removeValues(cart, oldValues);
+        }
+
+        if (values.isEmpty()) {
+            this.valuesByCart.remove(cart);
+            return;
+        }
+
+        this.valuesByCart.put(cart, values);
+        for (String value : values) {
+            Set<CartProperties> carts = this.cartsByValue.get(value);
+            if (carts == null) {
+                carts = Collections.newSetFromMap(new IdentityHashMap<CartProperties, Boolean>());
+                this.cartsByValue.put(value, carts);
+            }
+            carts.add(cart);
+        }
+    }
+
+    /**
+     * Removes a cart from this index
+     *
+     * @param cart Cart properties
+     */
+    public void remove(CartProperties cart) {
+        Collection<String> oldValues = this.valuesByCart.remove(cart);
+        if (oldValues != null) {
+            this.removeValues(cart, oldValues);
+        }
+    }
+
+    private void removeValues(CartProperties cart, Collection<String> values) {
+        for (String value : values) {
+            Set<CartProperties> carts = this.cartsByValue.get(value);
+            if (carts != null && carts.remove(cart) && carts.isEmpty()) {
+                this.cartsByValue.remove(value);
+            }
+        }
+    }
+
+    /**
+     * Finds all trains that have one or more carts with a value starting with the
+     * prefix specified. Trains that are no longer stored are omitted.
+     *
+     * @param prefix Text the values must start with, or the full value
+     * @return trains with matching carts
+     */
+    public List<TrainProperties> findTrains(String prefix) {
+        Set<TrainProperties> trains = Collections.newSetFromMap(new IdentityHashMap<TrainProperties, Boolean>());
+        List<TrainProperties> result = new ArrayList<TrainProperties>();
+        for (Set<CartProperties> carts : Util.getPrefixSubMap(this.cartsByValue, prefix).values()) {
+            for (CartProperties cart : carts) {
+                TrainProperties train = cart.getTrainProperties();
+                if (train != null && trains.add(train) && TrainPropertiesStore.get(train.getTrainName()) == train) {
+                    result.add(train);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes a cart from all indexes. Called when the properties of a cart are removed.
+     *
+     * @param cart Cart properties
+     */
+    public static void removeCart(CartProperties cart) {
+        TAGS.remove(cart);
+        OWNERS.remove(cart);
+        DESTINATIONS.remove(cart);
+    }
+
+    /**
+     * Clears all indexes
+     */
+    public static void clearAll() {
+        for (CartPropertiesIndex index : new CartPropertiesIndex[] { TAGS, OWNERS, DESTINATIONS }) {
+            index.cartsByValue.clear();
+            index.valuesByCart.clear();
+        }
+    }
+}
@@ -88,6 +88,8 @@ public class CartPropertiesStore {
     public static void remove(UUID uuid) {
         CartProperties prop = properties.remove(uuid);
         if (prop != null) {
+            CartPropertiesIndex.removeCart(prop);
+
             Iterator<Map.Entry<UUID, CartProperties>> iter = editing.entrySet().iterator();
             List<UUID> refreshPlayers = new ArrayList<UUID>(0);
             while (iter.hasNext()) {
@@ -122,6 +124,7 @@ public class CartPropertiesStore {
     protected static void clearAllCarts() {
         properties.clear();
         editing.clear();
+        CartPropertiesIndex.clearAll();
     }
 
     /**
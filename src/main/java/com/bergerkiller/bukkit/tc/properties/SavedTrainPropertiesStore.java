@@ -1,6 +1,9 @@
 package com.bergerkiller.bukkit.tc.properties;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -20,6 +23,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.util.Vector;
 
 import com.bergerkiller.bukkit.common.config.ConfigurationNode;
+import com.bergerkiller.bukkit.common.config.DataReader;
 import com.bergerkiller.bukkit.common.config.FileConfiguration;
 import com.bergerkiller.bukkit.common.math.Matrix4x4;
 import com.bergerkiller.bukkit.common.utils.MathUtil;
@@ -30,21 +34,33 @@ import com.bergerkiller.bukkit.tc.attachments.control.CartAttachmentItem;
 import com.bergerkiller.bukkit.tc.attachments.control.CartAttachmentSeat;
 import com.bergerkiller.bukkit.tc.controller.MinecartGroup;
 import com.bergerkiller.bukkit.tc.exception.IllegalNameException;
+import com.bergerkiller.bukkit.tc.utils.AsyncDataWriter;
 
 /**
  * Stores the train and cart properties for trains that have been saved using /train save.
- * These properties can also be used on spawner signs, or fused into spawning items.
+ * These properties can also be used on spawner signs, or fused into spawning items.<br>
+ * <br>
+ * The names of the trains saved in each module are stored in an index file. Modules
+ * that did not change since the index was written are not loaded until a train
+ * saved in them is used, and are unloaded again when no longer used for a while.
  */
 public class SavedTrainPropertiesStore {
     private static final String KEY_SAVED_NAME = "savedName";
+    private static final String MODULE_INDEX_FILE = "index.dat";
+    private static final int MODULE_INDEX_VERSION = 1;
+    private static final long MODULE_IDLE_TIMEOUT = 5 * 60 * 1000; // Unload modules not used for 5 minutes
 
     private final FileConfiguration savedTrainsConfig;
+    private final File file;
     private String name;
     private String modulesDirectory = "";
     private final List<String> names = new ArrayList<String>();
     private Map<String, SavedTrainPropertiesStore> modules = new HashMap<String, SavedTrainPropertiesStore>();;
     protected boolean changed = false;
     private boolean allowModules;
+    private boolean loaded;
+    private long lastUsed;
+    private boolean moduleIndexChanged = false;
 
     public SavedTrainPropertiesStore(String name, String filename) {
         this(name, filename, true);
@@ -52,13 +68,19 @@ public class SavedTrainPropertiesStore {
 
     public SavedTrainPropertiesStore(String name, String filename, boolean allowModules) {
         this.savedTrainsConfig = new FileConfiguration(filename);
-        this.savedTrainsConfig.load();
+        this.file = new File(filename);
         this.name = name;
-        this.names.addAll(this.savedTrainsConfig.getKeys());
         this.allowModules = allowModules;
+        this.loadConfig();
+    }
 
-        renameTrainsBeginningWithDigits();
-        storeSavedNameInConfig();
+    private SavedTrainPropertiesStore(String name, String filename, List<String> names) {
+        this.savedTrainsConfig = new FileConfiguration(filename);
+        this.file = new File(filename);
+        this.name = name;
+        this.names.addAll(names);
+        this.allowModules = false;
+        this.loaded = false;
     }
 
     public void loadModules(String directory) {
@@ -68,20 +90,134 @@ public class SavedTrainPropertiesStore {
             if (!dir.exists()) {
                 dir.mkdir();
             }
+
+            // Modules that did not change since the index was written do not have to be loaded
+            Map<String, ModuleIndexEntry> index = this.readModuleIndex();
             for (File file : StreamUtil.listFiles(dir)) {
                 String name = file.getName();
                 String ext = name.toLowerCase(Locale.ENGLISH);
                 if (ext.endsWith(".yml")) {
-                    createModule(name);
+                    ModuleIndexEntry entry = index.remove(name);
+                    if (entry != null && entry.matches(file)) {
+                        createModule(name, entry.names);
+                    } else {
+                        createModule(name);
+                        this.moduleIndexChanged = true;
+                    }
                 } else if (ext.endsWith(".zip")) {
                     TrainCarts.plugin.getLogger().warning("Zip files are not read, please extract '" + name + "'!");
                 }
             }
+
+            // Remove modules that no longer exist from the index
+            if (!index.isEmpty()) {
+                this.moduleIndexChanged = true;
+            }
+            if (this.moduleIndexChanged) {
+                this.writeModuleIndex(false);
+            }
         } else {
             throw new UnsupportedOperationException("This store is not authorized to load modules");
         }
     }
 
+    /**
+     * Loads the saved trains configuration from file, and refreshes the names of
+     * the trains stored in it.
+     */
+    private void loadConfig() {
+        this.savedTrainsConfig.load();
+        this.names.clear();
+        this.names.addAll(this.savedTrainsConfig.getKeys());
+        this.loaded = true;
+        this.lastUsed = System.currentTimeMillis();
+
+        renameTrainsBeginningWithDigits();
+        storeSavedNameInConfig();
+    }
+
+    /**
+     * Gets the configuration of all trains saved in this store, loading it from file
+     * if this is a module that has not been loaded yet.
+     *
+     * @return saved trains configuration
+     */
+    private FileConfiguration getSavedTrainsConfig() {
+        if (!this.loaded) {
+            this.loadConfig();
+        } else {
+            this.lastUsed = System.currentTimeMillis();
+        }
+        return this.savedTrainsConfig;
+    }
+
+    /**
+     * Checks whether a train by a name is saved in this store, without checking modules.
+     * Does not load the configuration of a module that has not been loaded yet.
+     *
+     * @param name
+     * @return True if the train is saved in this store
+     */
+    private boolean isSavedHere(String name) {
+        return this.loaded ? this.savedTrainsConfig.isNode(name) : this.names.contains(name);
+    }
+
+    /**
+     * Unloads the configuration of this module if it was not used for a while, and has no
+     * unsaved changes. It is loaded again from file when a train saved in it is used.
+     *
+     * @param now Current system time in milliseconds
+     */
+    private void unloadIfIdle(long now) {
+        if (this.loaded && !this.changed && (now - this.lastUsed) > MODULE_IDLE_TIMEOUT) {
+            this.savedTrainsConfig.clear();
+            this.loaded = false;
+        }
+    }
+
+    private Map<String, ModuleIndexEntry> readModuleIndex() {
+        final Map<String, ModuleIndexEntry> index = new HashMap<String, ModuleIndexEntry>();
+        new DataReader(this.modulesDirectory + File.separator + MODULE_INDEX_FILE) {
+            public void read(DataInputStream stream) throws IOException {
+                if (stream.readInt() != MODULE_INDEX_VERSION) {
+                    return;
+                }
+                int moduleCount = stream.readInt();
+                for (int i = 0; i < moduleCount; i++) {
+                    ModuleIndexEntry entry = ModuleIndexEntry.read(stream);
+                    index.put(entry.fileName, entry);
+                }
+            }
+        }.read();
+        return index;
+    }
+
+    private void writeModuleIndex(boolean autosave) {
+        new AsyncDataWriter(this.modulesDirectory + File.separator + MODULE_INDEX_FILE) {
+            public void write(DataOutputStream stream) throws IOException {
+                List<SavedTrainPropertiesStore> savedModules = new ArrayList<SavedTrainPropertiesStore>(modules.size());
+                for (SavedTrainPropertiesStore module : modules.values()) {
+                    if (module.file.exists()) {
+                        savedModules.add(module);
+                    }
+                }
+
+                stream.writeInt(MODULE_INDEX_VERSION);
+                stream.writeInt(savedModules.size());
+                for (SavedTrainPropertiesStore module : savedModules) {
+                    stream.writeUTF(module.file.getName());
+                    stream.writeLong(module.file.lastModified());
+                    stream.writeLong(module.file.length());
+                    stream.writeInt(module.names.size());
+                    for (String name : module.names) {
+                        stream.writeUTF(name);
+                    }
+                }
+            }
+        }.write(autosave);
+        this.moduleIndexChanged = false;
+    }
+
     /**
      * Gets the name of this saved train store. If this is a module,
      * returns the name of the module, otherwise returns null.
@@ -130,7 +266,7 @@ public class SavedTrainPropertiesStore {
     public String getModuleNameOfTrain(String name) {
         if (!this.savedTrainsConfig.isNode(name)) {
             for (Map.Entry<String, SavedTrainPropertiesStore> module : this.modules.entrySet()) {
-                if (module.getValue().savedTrainsConfig.isNode(name)) {
+                if (module.getValue().isSavedHere(name)) {
                     return module.getKey();
                 }
             }
@@ -172,11 +308,11 @@ public class SavedTrainPropertiesStore {
             // Find it in an existing module
             for (Map.Entry<String, SavedTrainPropertiesStore> moduleEntry : this.modules.entrySet()) {
                 SavedTrainPropertiesStore moduleStore = moduleEntry.getValue();
-                if (moduleStore.savedTrainsConfig.isNode(name)) {
+                if (moduleStore.isSavedHere(name)) {
                     if (moduleEntry.getKey().equals(module)) {
                         return; // already stored in this module
                     }
-                    config = moduleStore.savedTrainsConfig.getNode(name).clone();
+                    config = moduleStore.getSavedTrainsConfig().getNode(name).clone();
                     moduleStore.savedTrainsConfig.remove(name);
                     moduleStore.names.remove(name);
                     moduleStore.changed = true;
@@ -203,7 +339,7 @@ public class SavedTrainPropertiesStore {
             }
         }
 
-        moduleStore.savedTrainsConfig.set(name, config);
+        moduleStore.getSavedTrainsConfig().set(name, config);
         moduleStore.names.add(name);
         moduleStore.changed = true;
     }
@@ -220,6 +356,19 @@ public class SavedTrainPropertiesStore {
         name = name.toLowerCase(Locale.ENGLISH);
 
         modules.put(name, new SavedTrainPropertiesStore(name, modulesDirectory + File.separator + fileName, false));
+        this.moduleIndexChanged = true;
+    }
+
+    /**
+     * Create a module from a filename, without loading it. The names of the trains
+     * saved in the module are known from the module index.
+     *
+     * @param fileName The filename of the module, in format `moduleName.yml`
+     * @param names Names of the trains saved in the module
+     */
+    private void createModule(String fileName, List<String> names) {
+        String name = fileName.substring(0, fileName.lastIndexOf(".")).toLowerCase(Locale.ENGLISH);
+        modules.put(name, new SavedTrainPropertiesStore(name, modulesDirectory + File.separator + fileName, names));
     }
 
     /**
@@ -280,7 +429,7 @@ public class SavedTrainPropertiesStore {
      * @return True if the train is contained
      */
     public boolean containsTrain(String name) {
-        if (this.savedTrainsConfig.isNode(name)) {
+        if (this.isSavedHere(name)) {
             return true;
         }
         for (SavedTrainPropertiesStore module : this.modules.values()) {
@@ -292,15 +441,29 @@ public class SavedTrainPropertiesStore {
     }
 
     public void save(boolean autosave) {
+        long now = System.currentTimeMillis();
         for (SavedTrainPropertiesStore module : this.modules.values()) {
-            module.save(autosave);
+            if (module.saveConfig(autosave)) {
+                this.moduleIndexChanged = true;
+            }
+            if (autosave) {
+                module.unloadIfIdle(now);
+            }
+        }
+        if (this.moduleIndexChanged && this.allowModules) {
+            this.writeModuleIndex(autosave);
         }
 
-        if (autosave && !this.changed) {
-            return;
+        this.saveConfig(autosave);
+    }
+
+    private boolean saveConfig(boolean autosave) {
+        if (!this.loaded || (autosave && !this.changed)) {
+            return false;
         }
         this.savedTrainsConfig.save();
         this.changed = false;
+        return true;
     }
 
     /**
@@ -345,9 +508,9 @@ public class SavedTrainPropertiesStore {
      */
     public SavedTrainProperties setConfig(String name, ConfigurationNode config) throws IllegalNameException {
         // Check if stored in a module, first
-        if (!this.savedTrainsConfig.isNode(name)) {
+        if (!this.isSavedHere(name)) {
             for (SavedTrainPropertiesStore module : this.modules.values()) {
-                if (module.savedTrainsConfig.isNode(name)) {
+                if (module.isSavedHere(name)) {
                     return module.setConfig(name, config);
                 }
             }
@@ -364,13 +527,14 @@ public class SavedTrainPropertiesStore {
         // Clone to prevent the original being mutated later
         // Preserve claims set in the original properties
         ConfigurationNode newConfig = config.clone();
-        if (this.savedTrainsConfig.contains(name + ".claims")) {
-            newConfig.set("claims", this.savedTrainsConfig.getList(name + ".claims", String.class));
+        FileConfiguration savedTrainsConfig = this.getSavedTrainsConfig();
+        if (savedTrainsConfig.contains(name + ".claims")) {
+            newConfig.set("claims", savedTrainsConfig.getList(name + ".claims", String.class));
         }
 
         // Store in mapping
         this.changed = true;
-        this.savedTrainsConfig.set(name, newConfig);
+        savedTrainsConfig.set(name, newConfig);
         newConfig.set(KEY_SAVED_NAME, name);
         this.names.remove(name);
         this.names.add(name);
@@ -386,7 +550,7 @@ public class SavedTrainPropertiesStore {
      * @return properties, null if not found
      */
     public SavedTrainProperties getProperties(String name) {
-        if (!this.savedTrainsConfig.isNode(name)) {
+        if (!this.isSavedHere(name)) {
             for (SavedTrainPropertiesStore module : this.modules.values()) {
                 ConfigurationNode config = module.getConfig(name);
                 if (config != null) {
@@ -395,7 +559,7 @@ public class SavedTrainPropertiesStore {
             }
             return null;
         }
-        return SavedTrainProperties.of(this, name, this.savedTrainsConfig.getNode(name));
+        return SavedTrainProperties.of(this, name, this.getSavedTrainsConfig().getNode(name));
     }
 
     /**
@@ -405,7 +569,7 @@ public class SavedTrainPropertiesStore {
      * @return configuration, null if the train is not stored
      */
     public ConfigurationNode getConfig(String name) {
-        if (!this.savedTrainsConfig.isNode(name)) {
+        if (!this.isSavedHere(name)) {
             for (SavedTrainPropertiesStore module : this.modules.values()) {
                 ConfigurationNode config = module.getConfig(name);
                 if (config != null) {
@@ -414,7 +578,7 @@ public class SavedTrainPropertiesStore {
             }
             return null;
         }
-        return this.savedTrainsConfig.getNode(name);
+        return this.getSavedTrainsConfig().getNode(name);
     }
 
     /**
@@ -453,8 +617,8 @@ public class SavedTrainPropertiesStore {
      * @return True if found and removed
      */
     public boolean remove(String name) {
-        if (this.savedTrainsConfig.isNode(name)) {
-            this.savedTrainsConfig.remove(name);
+        if (this.isSavedHere(name)) {
+            this.getSavedTrainsConfig().remove(name);
             this.names.remove(name);
             this.changed = true;
             return true;
@@ -478,11 +642,11 @@ public class SavedTrainPropertiesStore {
      * @return True if found and renamed
      */
     public boolean rename(String name, String newName) {
-        if (this.savedTrainsConfig.isNode(name)) {
+        if (this.isSavedHere(name)) {
             if (name.equals(newName)) {
                 return true;
             }
-            ConfigurationNode oldConfig = this.savedTrainsConfig.getNode(name).clone();
+            ConfigurationNode oldConfig = this.getSavedTrainsConfig().getNode(name).clone();
             this.savedTrainsConfig.remove(name);
             this.names.remove(name);
             this.names.remove(newName);
@@ -759,6 +923,46 @@ public class SavedTrainPropertiesStore {
         positionNode.set("rotZ", MathUtil.round(rot.getZ(), 6));
     }
 
+    /**
+     * The names of the trains saved in a module, as stored in the module index.
+     * Only valid while the module file is not modified.
+     */
+    private static class ModuleIndexEntry {
+        public final String fileName;
+        public final long lastModified;
+        public final long length;
+        public final List<String> names;
+
+        private ModuleIndexEntry(String fileName, long lastModified, long length, List<String> names) {
+            this.fileName = fileName;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.names = names;
+        }
+
+        /**
+         * Checks whether the module file is unchanged since this entry was written
+         *
+         * @param file Module file
+         * @return True if the names in this entry can be used
+         */
+        public boolean matches(File file) {
+            return file.lastModified() == this.lastModified && file.length() == this.length;
+        }
+
+        public static ModuleIndexEntry read(DataInputStream stream) throws IOException {
+            String fileName = stream.readUTF();
+            long lastModified = stream.readLong();
+            long length = stream.readLong();
+            int nameCount = stream.readInt();
+            List<String> names = new ArrayList<String>(nameCount);
+            for (int i = 0; i < nameCount; i++) {
+                names.add(stream.readUTF());
+            }
+            return new ModuleIndexEntry(fileName, lastModified, length, names);
+        }
+    }
+
     /**
      * A single claim on a saved train
      */
@@ -95,8 +95,30 @@ public class TrainProperties extends TrainPropertiesStore implements IProperties
         return "train";
     }
 
+    /**
+     * {@inheritDoc}<br>
+     * <br>
+     * Property values changed since the last time the configuration was accessed
+     * are written to it first, including those of the carts of this train.
+     */
     @Override
     public final ConfigurationNode getConfig() {
+        this.standardProperties.writePendingChanges(this.config);
+        for (CartProperties cProp : this) {
+            cProp.getConfig();
+        }
+        return this.config;
+    }
+
+    /**
+     * Gets the configuration of these properties, without first writing property
+     * values changed since to it. Properties stored only in the configuration use
+     * this to read and write their own values, so that reading them does not write
+     * out all changed field-backed properties and its carts.
+     *
+     * @return configuration, which might not contain all changed property values
+     */
+    public final ConfigurationNode getRawConfig() {
         return this.config;
     }
 
@@ -1320,6 +1342,9 @@ public class TrainProperties extends TrainPropertiesStore implements IProperties
      */
     @Override
     public void load(ConfigurationNode node) {
+        // Changes not yet written to the configuration are lost anyway
+        this.standardProperties.discardPendingChanges();
+
         // Wipe all original properties except 'carts', effectively resetting to the defaults
         for (String key : new ArrayList<String>(this.config.getKeys())) {
             if (!"carts".equals(key)) {
@@ -1368,6 +1393,7 @@ public class TrainProperties extends TrainPropertiesStore implements IProperties
      */
     public ConfigurationNode saveToConfig() {
         // Save carts too!
+        this.standardProperties.writePendingChanges(this.config);
         for (CartProperties cProp : this) {
             cProp.saveToConfig();
         }
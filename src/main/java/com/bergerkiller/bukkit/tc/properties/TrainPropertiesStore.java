@@ -2,11 +2,13 @@ package com.bergerkiller.bukkit.tc.properties;
 
 import com.bergerkiller.bukkit.common.config.ConfigurationNode;
 import com.bergerkiller.bukkit.common.config.FileConfiguration;
+import com.bergerkiller.bukkit.common.config.yaml.YamlPath;
 import com.bergerkiller.bukkit.common.utils.CommonUtil;
 import com.bergerkiller.bukkit.common.utils.LogicUtil;
 import com.bergerkiller.bukkit.common.utils.StreamUtil;
 import com.bergerkiller.bukkit.tc.CollisionMode;
 import com.bergerkiller.bukkit.tc.TrainCarts;
+import com.bergerkiller.bukkit.tc.Util;
 import com.bergerkiller.bukkit.tc.controller.MinecartGroup;
 import com.bergerkiller.bukkit.tc.properties.api.IProperty;
 import com.bergerkiller.bukkit.tc.properties.api.IPropertyRegistry;
@@ -17,6 +19,7 @@ import com.bergerkiller.bukkit.tc.storage.OfflineGroupManager;
 
 import org.bukkit.entity.Player;
 
+import java.io.File;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.logging.Level;
@@ -28,10 +31,15 @@ public class TrainPropertiesStore extends LinkedHashSet<CartProperties> {
     private static boolean hasChanges = false;
     private static final long serialVersionUID = 1L;
     private static final String propertiesFile = "TrainProperties.yml";
+    private static final String changesFile = "TrainProperties.changes.yml";
     private static final String defaultPropertiesFile = "DefaultTrainProperties.yml";
+    private static final int MAX_CHANGES_BEFORE_FULL_SAVE = 16;
     private static FileConfiguration config = null;
+    private static FileConfiguration changesConfig = null;
+    private static final Set<String> changedTrains = new HashSet<>(); // Changed since last save
+    private static boolean fullSaveRequired = false;
     private static FileConfiguration defconfig = null;
-    private static Map<String, TrainProperties> trainProperties = new TreeMap<>();
+    private static TreeMap<String, TrainProperties> trainProperties = new TreeMap<>();
 
     /**
      * Gets all the TrainProperties available
@@ -42,6 +50,17 @@ public class TrainPropertiesStore extends LinkedHashSet<CartProperties> {
         return trainProperties.values();
     }
 
+    /**
+     * Gets all the TrainProperties whose train name starts with the prefix specified.
+     * Train names are sorted, so this does not check every train name.
+     *
+     * @param prefix Text the train names must start with
+     * @return a Collection of Train Properties with a matching name (unmodifiable)
+     */
+    public static Collection<TrainProperties> getAllWithNamePrefix(String prefix) {
+        return Collections.unmodifiableCollection(Util.getPrefixSubMap(trainProperties, prefix).values());
+    }
+
     /**
      * Matches all train properties that have a train name matching the expression.
      * The expression can use *-characters to denote portions of 'any' contents.
@@ -54,7 +73,9 @@ public class TrainPropertiesStore extends LinkedHashSet<CartProperties> {
             final String[] elements = expression.split("\\*", -1);
             final boolean first = expression.startsWith("*");
             final boolean last = expression.endsWith("*");
-            return trainProperties.values().stream()
+            final Collection<TrainProperties> candidates = first ? trainProperties.values()
+                    : getAllWithNamePrefix(elements[0]);
+            return candidates.stream()
                     .filter(p -> p.matchName(elements, first, last))
                     .collect(StreamUtil.toUnmodifiableList());
         }
@@ -350,6 +371,7 @@ public class TrainPropertiesStore extends LinkedHashSet<CartProperties> {
         config.clear();
         CartPropertiesStore.clearAllCarts();
         hasChanges = true;
+        fullSaveRequired = true;
     }
 
     /**
@@ -359,6 +381,25 @@ public class TrainPropertiesStore extends LinkedHashSet<CartProperties> {
         loadDefaults();
         config = new FileConfiguration(TrainCarts.plugin, propertiesFile);
         config.load();
+
+        // Apply the changes saved since the last time the full configuration was saved
+        // Then save the full configuration, so the changes are no longer needed
+        changesConfig = new FileConfiguration(TrainCarts.plugin, changesFile);
+        changedTrains.clear();
+        fullSaveRequired = false;
+        if (changesConfig.exists()) {
+            changesConfig.load();
+            for (ConfigurationNode changedTrainConfig : changesConfig.getNode("changed").getNodes()) {
+                config.remove(changedTrainConfig.getName());
+                changedTrainConfig.cloneInto(config.getNode(changedTrainConfig.getName()));
+            }
+            for (String removedTrainName : changesConfig.getNode("removed").getKeys()) {
+                config.remove(removedTrainName);
+            }
+            config.save();
+            deleteChanges();
+        }
+
         if (fixDeprecation(config)) {
             config.save();
         }
@@ -380,8 +421,20 @@ public class TrainPropertiesStore extends LinkedHashSet<CartProperties> {
         }
         hasChanges = false;
 
-        // Add a change listener which will set hasChanges to true
-        config.addChangeListener((path) -> hasChanges = true);
+        // Add a change listener which will set hasChanges to true, and tracks what trains changed
+        config.addChangeListener(TrainPropertiesStore::onConfigChanged);
+    }
+
+    private static void onConfigChanged(YamlPath path) {
+        hasChanges = true;
+        if (path.isRoot()) {
+            fullSaveRequired = true;
+        } else {
+            while (!path.parent().isRoot()) {
+                path = path.parent();
+            }
+            changedTrains.add(path.name());
+        }
     }
 
     /**
@@ -497,12 +550,14 @@ public class TrainPropertiesStore extends LinkedHashSet<CartProperties> {
     }
 
     /**
-     * Saves all Train Properties to disk
+     * Saves all Train Properties to disk. When autosaving, only the trains that changed
+     * since the last save are written to a separate changes file, which is much faster
+     * than writing all trains. All trains are written again once there are many changes,
+     * and when not autosaving.
      */
     public static void save(boolean autosave) {
-        if (autosave && !hasChanges) {
-            return;
-        }
+        // Properties changed since the last save are only written to the configuration
+        // by saveToConfig(), so do this before checking for changes
         for (TrainProperties prop : trainProperties.values()) {
             // Does this train even exist?!
             if (!prop.hasHolder() && !OfflineGroupManager.contains(prop.getTrainName())) {
@@ -510,14 +565,56 @@ public class TrainPropertiesStore extends LinkedHashSet<CartProperties> {
                 continue;
             }
 
-            // Do .saveToConfig() to refresh everything
-            // Becomes obsolete once all properties are IProperties
+            // Do .saveToConfig() to write property changes to the configuration
             prop.saveToConfig();
         }
-        config.save();
+        if (autosave && !hasChanges) {
+            return;
+        }
+
+        if (autosave && !fullSaveRequired) {
+            saveChanges();
+        }
+        if (!autosave || fullSaveRequired) {
+            config.save();
+            deleteChanges();
+            fullSaveRequired = false;
+        }
+        changedTrains.clear();
         hasChanges = false;
     }
 
+    private static void saveChanges() {
+        ConfigurationNode changed = changesConfig.getNode("changed");
+        ConfigurationNode removed = changesConfig.getNode("removed");
+        for (String trainName : changedTrains) {
+            changed.remove(trainName);
+            if (config.isNode(trainName)) {
+                removed.remove(trainName);
+                config.getNode(trainName).cloneInto(changed.getNode(trainName));
+            } else {
+                removed.set(trainName, true);
+            }
+        }
+
+        // The whole changes file is written every time, so keep it small
+        // When too many trains have changed, write all trains instead
+        int numChanges = changed.getKeys().size() + removed.getKeys().size();
+        if (numChanges > MAX_CHANGES_BEFORE_FULL_SAVE) {
+            fullSaveRequired = true;
+        } else {
+            changesConfig.save();
+        }
+    }
+
+    private static void deleteChanges() {
+        changesConfig.clear();
+        File file = new File(TrainCarts.plugin.getDataFolder(), changesFile);
+        if (file.exists() && !file.delete()) {
+            changesConfig.save(); // Empty it out instead
+        }
+    }
+
     /**
      * Gets the Configuration Node containing the defaults of the name specified
      *
@@ -17,7 +17,7 @@ public interface ICartProperty<T> extends IProperty<T> {
 
     @Override
     default T get(CartProperties properties) {
-        return this.readFromConfig(properties.getConfig()).orElseGet(this::getDefault);
+        return this.readFromConfig(properties.getRawConfig()).orElseGet(this::getDefault);
     }
 
     @Override
@@ -39,9 +39,9 @@ public interface ICartProperty<T> extends IProperty<T> {
     @Override
     default void set(CartProperties properties, T value) {
         if (value == null || value.equals(this.getDefault())) {
-            this.writeToConfig(properties.getConfig(), Optional.empty());
+            this.writeToConfig(properties.getRawConfig(), Optional.empty());
         } else {
-            this.writeToConfig(properties.getConfig(), Optional.of(value));
+            this.writeToConfig(properties.getRawConfig(), Optional.of(value));
         }
         properties.tryUpdate(); // onPropertiesChanged()
     }
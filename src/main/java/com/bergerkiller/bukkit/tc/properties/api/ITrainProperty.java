@@ -17,7 +17,7 @@ public interface ITrainProperty<T> extends IProperty<T> {
 
     @Override
     default T get(TrainProperties properties) {
-        return this.readFromConfig(properties.getConfig()).orElseGet(this::getDefault);
+        return this.readFromConfig(properties.getRawConfig()).orElseGet(this::getDefault);
     }
 
     @Override
@@ -33,9 +33,9 @@ public interface ITrainProperty<T> extends IProperty<T> {
     @Override
     default void set(TrainProperties properties, T value) {
         if (value == null || value.equals(this.getDefault())) {
-            this.writeToConfig(properties.getConfig(), Optional.empty());
+            this.writeToConfig(properties.getRawConfig(), Optional.empty());
         } else {
-            this.writeToConfig(properties.getConfig(), Optional.of(value));
+            this.writeToConfig(properties.getRawConfig(), Optional.of(value));
         }
         properties.tryUpdate(); // onPropertiesChanged()
     }
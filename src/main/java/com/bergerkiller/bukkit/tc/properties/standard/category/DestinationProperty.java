@@ -1,5 +1,6 @@
 package com.bergerkiller.bukkit.tc.properties.standard.category;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,12 +12,13 @@ import com.bergerkiller.bukkit.tc.Permission;
 import com.bergerkiller.bukkit.tc.Util;
 import com.bergerkiller.bukkit.tc.commands.annotations.CommandTargetTrain;
 import com.bergerkiller.bukkit.tc.properties.CartProperties;
+import com.bergerkiller.bukkit.tc.properties.CartPropertiesIndex;
 import com.bergerkiller.bukkit.tc.properties.TrainProperties;
-import com.bergerkiller.bukkit.tc.properties.api.ICartProperty;
 import com.bergerkiller.bukkit.tc.properties.api.PropertyCheckPermission;
 import com.bergerkiller.bukkit.tc.properties.api.PropertyParser;
 import com.bergerkiller.bukkit.tc.properties.api.PropertySelectorCondition;
 import com.bergerkiller.bukkit.tc.properties.standard.StandardProperties;
+import com.bergerkiller.bukkit.tc.properties.standard.fieldbacked.FieldBackedStandardCartProperty;
 
 import cloud.commandframework.annotations.Argument;
 import cloud.commandframework.annotations.CommandDescription;
@@ -27,7 +29,7 @@ import cloud.commandframework.annotations.CommandMethod;
  * {@link StandardProperties#DESTINATION_ROUTE_INDEX} when new destinations
  * are set.
  */
-public final class DestinationProperty implements ICartProperty<String> {
+public final class DestinationProperty extends FieldBackedStandardCartProperty<String> {
 
     @CommandTargetTrain
     @CommandMethod("train destination|dest none")
@@ -130,13 +132,36 @@ public final class DestinationProperty implements ICartProperty<String> {
         Util.setConfigOptional(config, "destination", value);
     }
 
+    @Override
+    public String getData(CartInternalData data) {
+        return data.destination;
+    }
+
+    @Override
+    public void setData(CartInternalData data, String value) {
+        data.destination = value;
+    }
+
+    @Override
+    public void onConfigurationChanged(CartProperties properties) {
+        super.onConfigurationChanged(properties);
+        updateIndex(properties, get(properties));
+    }
+
+    private static void updateIndex(CartProperties properties, String destination) {
+        CartPropertiesIndex.DESTINATIONS.update(properties, (destination == null || destination.isEmpty())
+                ? Collections.<String>emptySet() : Collections.singleton(destination));
+    }
+
     @Override
     public void set(CartProperties properties, String value) {
         // Save current index before the destination was changed
         int prior_route_index = properties.getCurrentRouteDestinationIndex();
 
         // Update destination
-        ICartProperty.super.set(properties, value);
+        super.set(properties, value);
+        value = get(properties);
+        updateIndex(properties, value);
 
         // If a destination is now set, increment the route index if it matches the next one in the list
         if (!value.isEmpty() && prior_route_index != -1) {
@@ -48,9 +48,9 @@ public final class ModelProperty extends FieldBackedProperty<AttachmentModel> {
     public AttachmentModel get(CartProperties properties) {
         CartInternalData data = CartInternalData.get(properties);
         if (data.model == null) {
-            if (properties.getConfig().isNode("model")) {
+            if (properties.getRawConfig().isNode("model")) {
                 // Decode model and initialize
-                data.model = new AttachmentModelBoundToCart(properties, properties.getConfig().getNode("model"));
+                data.model = new AttachmentModelBoundToCart(properties, properties.getRawConfig().getNode("model"));
             } else {
                 // No model was set. Create a Vanilla model based on the Minecart information
                 data.model = new AttachmentModelBoundToCart(properties, new ConfigurationNode());
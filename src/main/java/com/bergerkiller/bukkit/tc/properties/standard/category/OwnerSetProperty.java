@@ -14,11 +14,14 @@ import com.bergerkiller.bukkit.common.config.ConfigurationNode;
 import com.bergerkiller.bukkit.common.utils.StringUtil;
 import com.bergerkiller.bukkit.tc.Permission;
 import com.bergerkiller.bukkit.tc.Util;
+import com.bergerkiller.bukkit.tc.commands.selector.SelectorCondition;
 import com.bergerkiller.bukkit.tc.properties.CartProperties;
+import com.bergerkiller.bukkit.tc.properties.CartPropertiesIndex;
 import com.bergerkiller.bukkit.tc.properties.IProperties;
 import com.bergerkiller.bukkit.tc.properties.TrainProperties;
 import com.bergerkiller.bukkit.tc.properties.api.PropertyCheckPermission;
 import com.bergerkiller.bukkit.tc.properties.api.PropertyParser;
+import com.bergerkiller.bukkit.tc.properties.api.PropertySelectorCondition;
 import com.bergerkiller.bukkit.tc.properties.api.context.PropertyParseContext;
 import com.bergerkiller.bukkit.tc.properties.standard.StandardProperties;
 import com.bergerkiller.bukkit.tc.properties.standard.fieldbacked.FieldBackedStandardCartProperty;
@@ -277,6 +280,11 @@ public final class OwnerSetProperty extends FieldBackedStandardCartProperty<Set<
         }
     }
 
+    @PropertySelectorCondition("owner")
+    public boolean selectorMatchesAnyOwner(TrainProperties properties, SelectorCondition condition) {
+        return condition.matchesAnyText(get(properties));
+    }
+
     @Override
     public boolean hasPermission(CommandSender sender, String name) {
         return Permission.PROPERTY_OWNERS.has(sender);
@@ -297,6 +305,18 @@ public final class OwnerSetProperty extends FieldBackedStandardCartProperty<Set<
         data.owners = value;
     }
 
+    @Override
+    public void onConfigurationChanged(CartProperties properties) {
+        super.onConfigurationChanged(properties);
+        CartPropertiesIndex.OWNERS.update(properties, get(properties));
+    }
+
+    @Override
+    public void set(CartProperties properties, Set<String> value) {
+        super.set(properties, value);
+        CartPropertiesIndex.OWNERS.update(properties, get(properties));
+    }
+
     @Override
     public Optional<Set<String>> readFromConfig(ConfigurationNode config) {
         return Util.getConfigStringSetOptional(config, "owners");
@@ -97,10 +97,10 @@ public final class SignSkipOptionsProperty extends FieldBackedProperty<SignSkipO
     public void set(CartProperties properties, SignSkipOptions value) {
         if (value.equals(SignSkipOptions.NONE)) {
             CartInternalData.get(properties).signSkipOptionsData = SignSkipOptions.NONE;
-            this.writeToConfig(properties.getConfig(), Optional.empty());
+            this.writeToConfig(properties.getRawConfig(), Optional.empty());
         } else {
             CartInternalData.get(properties).signSkipOptionsData = value;
-            this.writeToConfig(properties.getConfig(), Optional.of(value));
+            this.writeToConfig(properties.getRawConfig(), Optional.of(value));
         }
     }
 
@@ -113,10 +113,10 @@ public final class SignSkipOptionsProperty extends FieldBackedProperty<SignSkipO
     public void set(TrainProperties properties, SignSkipOptions value) {
         if (value.equals(SignSkipOptions.NONE)) {
             TrainInternalData.get(properties).signSkipOptionsData = SignSkipOptions.NONE;
-            this.writeToConfig(properties.getConfig(), Optional.empty());
+            this.writeToConfig(properties.getRawConfig(), Optional.empty());
         } else {
             TrainInternalData.get(properties).signSkipOptionsData = value;
-            this.writeToConfig(properties.getConfig(), Optional.of(value));
+            this.writeToConfig(properties.getRawConfig(), Optional.of(value));
         }
     }
 
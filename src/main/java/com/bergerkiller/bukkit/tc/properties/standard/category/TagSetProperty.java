@@ -15,6 +15,7 @@ import com.bergerkiller.bukkit.tc.Util;
 import com.bergerkiller.bukkit.tc.commands.annotations.CommandTargetTrain;
 import com.bergerkiller.bukkit.tc.commands.selector.SelectorCondition;
 import com.bergerkiller.bukkit.tc.properties.CartProperties;
+import com.bergerkiller.bukkit.tc.properties.CartPropertiesIndex;
 import com.bergerkiller.bukkit.tc.properties.TrainProperties;
 import com.bergerkiller.bukkit.tc.properties.api.PropertyCheckPermission;
 import com.bergerkiller.bukkit.tc.properties.api.PropertyParser;
@@ -305,6 +306,18 @@ public final class TagSetProperty extends FieldBackedStandardCartProperty<Set<St
         data.tags = value;
     }
 
+    @Override
+    public void onConfigurationChanged(CartProperties properties) {
+        super.onConfigurationChanged(properties);
+        CartPropertiesIndex.TAGS.update(properties, get(properties));
+    }
+
+    @Override
+    public void set(CartProperties properties, Set<String> value) {
+        super.set(properties, value);
+        CartPropertiesIndex.TAGS.update(properties, get(properties));
+    }
+
     @Override
     public Optional<Set<String>> readFromConfig(ConfigurationNode config) {
         return Util.getConfigStringSetOptional(config, "tags");
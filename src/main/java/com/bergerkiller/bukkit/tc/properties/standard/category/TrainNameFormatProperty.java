@@ -130,7 +130,7 @@ public final class TrainNameFormatProperty implements ITrainProperty<TrainNameFo
     @Override
     public TrainNameFormat get(TrainProperties properties) {
         // First try from configuration
-        Optional<TrainNameFormat> fromConfig = this.readFromConfig(properties.getConfig());
+        Optional<TrainNameFormat> fromConfig = this.readFromConfig(properties.getRawConfig());
         if (fromConfig.isPresent()) {
             return fromConfig.get();
         }
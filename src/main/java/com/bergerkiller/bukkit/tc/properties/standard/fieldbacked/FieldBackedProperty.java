@@ -1,9 +1,11 @@
 package com.bergerkiller.bukkit.tc.properties.standard.fieldbacked;
 
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import org.bukkit.Material;
 
+import com.bergerkiller.bukkit.common.config.ConfigurationNode;
 import com.bergerkiller.bukkit.tc.properties.CartProperties;
 import com.bergerkiller.bukkit.tc.properties.TrainProperties;
 import com.bergerkiller.bukkit.tc.properties.api.IProperty;
@@ -30,6 +32,42 @@ public abstract class FieldBackedProperty<T> implements IProperty<T> {
      */
     public static final class CartInternalDataHolder {
         protected final CartInternalData data = new CartInternalData();
+        private final Set<FieldBackedStandardCartProperty<?>> pendingWrites = new LinkedHashSet<>();
+
+        /**
+         * Marks a property as changed, so that the value stored in internal data
+         * is written to the YAML configuration the next time it is accessed.
+         *
+         * @param property The property that changed
+         */
+        protected void markChanged(FieldBackedStandardCartProperty<?> property) {
+            this.pendingWrites.add(property);
+        }
+
+        /**
+         * Writes the values of all properties changed since the last time
+         * this was called to the YAML configuration specified.
+         *
+         * @param config The cart configuration to write to
+         */
+        public void writePendingChanges(ConfigurationNode config) {
+            if (!this.pendingWrites.isEmpty()) {
+                FieldBackedStandardCartProperty<?>[] properties = this.pendingWrites.toArray(new FieldBackedStandardCartProperty<?>[0]);
+                this.pendingWrites.clear();
+                for (FieldBackedStandardCartProperty<?> property : properties) {
+                    property.writeDataToConfig(this.data, config);
+                }
+            }
+        }
+
+        /**
+         * Forgets about all properties changed since the last time they were
+         * written. Should be called when the configuration is about to be
+         * replaced entirely.
+         */
+        public void discardPendingChanges() {
+            this.pendingWrites.clear();
+        }
     }
 
     /**
@@ -38,6 +76,42 @@ public abstract class FieldBackedProperty<T> implements IProperty<T> {
      */
     public static final class TrainInternalDataHolder {
         protected final TrainInternalData data = new TrainInternalData();
+        private final Set<FieldBackedStandardTrainProperty<?>> pendingWrites = new LinkedHashSet<>();
+
+        /**
+         * Marks a property as changed, so that the value stored in internal data
+         * is written to the YAML configuration the next time it is accessed.
+         *
+         * @param property The property that changed
+         */
+        protected void markChanged(FieldBackedStandardTrainProperty<?> property) {
+            this.pendingWrites.add(property);
+        }
+
+        /**
+         * Writes the values of all properties changed since the last time
+         * this was called to the YAML configuration specified.
+         *
+         * @param config The train configuration to write to
+         */
+        public void writePendingChanges(ConfigurationNode config) {
+            if (!this.pendingWrites.isEmpty()) {
+                FieldBackedStandardTrainProperty<?>[] properties = this.pendingWrites.toArray(new FieldBackedStandardTrainProperty<?>[0]);
+                this.pendingWrites.clear();
+                for (FieldBackedStandardTrainProperty<?> property : properties) {
+                    property.writeDataToConfig(this.data, config);
+                }
+            }
+        }
+
+        /**
+         * Forgets about all properties changed since the last time they were
+         * written. Should be called when the configuration is about to be
+         * replaced entirely.
+         */
+        public void discardPendingChanges() {
+            this.pendingWrites.clear();
+        }
     }
 
     /**
@@ -48,6 +122,7 @@ public abstract class FieldBackedProperty<T> implements IProperty<T> {
     protected static class CartInternalData {
         public SignSkipOptions signSkipOptionsData;
         public Set<String> tags;
+        public String destination;
         public Set<String> owners;
         public Set<String> ownerPermissions;
         public Set<Material> blockBreakTypes;
@@ -2,8 +2,10 @@ package com.bergerkiller.bukkit.tc.properties.standard.fieldbacked;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 
+import com.bergerkiller.bukkit.common.config.ConfigurationNode;
 import com.bergerkiller.bukkit.tc.properties.CartProperties;
 import com.bergerkiller.bukkit.tc.properties.TrainProperties;
 import com.bergerkiller.bukkit.tc.properties.api.ICartProperty;
@@ -43,10 +45,37 @@ public abstract class FieldBackedStandardCartProperty<T> extends FieldBackedProp
         return getData(CartInternalData.get(properties));
     }
 
+    /**
+     * Updates the internal data field right away. The value is written to the
+     * YAML configuration later, when the configuration is accessed or saved.
+     * This keeps setting properties cheap when it happens very often, such as
+     * with property signs.
+     */
     @Override
     public void set(CartProperties properties, T value) {
-        ICartProperty.super.set(properties, value);
-        setData(CartInternalData.get(properties), value);
+        if (value == null) {
+            value = this.getDefault();
+        }
+        CartInternalDataHolder holder = properties.getStandardPropertiesHolder();
+        setData(holder.data, value);
+        holder.markChanged(this);
+        properties.tryUpdate(); // onPropertiesChanged()
+    }
+
+    /**
+     * Writes the current property value stored in internal data to the
+     * YAML configuration. The value is omitted when it is the default.
+     *
+     * @param data The internal data to read from
+     * @param config The configuration to write to
+     */
+    void writeDataToConfig(CartInternalData data, ConfigurationNode config) {
+        T value = getData(data);
+        if (value == null || value.equals(this.getDefault())) {
+            this.writeToConfig(config, Optional.empty());
+        } else {
+            this.writeToConfig(config, Optional.of(value));
+        }
     }
 
     /**
@@ -1,5 +1,8 @@
 package com.bergerkiller.bukkit.tc.properties.standard.fieldbacked;
 
+import java.util.Optional;
+
+import com.bergerkiller.bukkit.common.config.ConfigurationNode;
 import com.bergerkiller.bukkit.tc.properties.TrainProperties;
 import com.bergerkiller.bukkit.tc.properties.api.ITrainProperty;
 
@@ -38,10 +41,37 @@ public abstract class FieldBackedStandardTrainProperty<T> extends FieldBackedPro
         return getData(TrainInternalData.get(properties));
     }
 
+    /**
+     * Updates the internal data field right away. The value is written to the
+     * YAML configuration later, when the configuration is accessed or saved.
+     * This keeps setting properties cheap when it happens very often, such as
+     * with property signs.
+     */
     @Override
     public void set(TrainProperties properties, T value) {
-        ITrainProperty.super.set(properties, value);
-        setData(TrainInternalData.get(properties), value);
+        if (value == null) {
+            value = this.getDefault();
+        }
+        TrainInternalDataHolder holder = properties.getStandardPropertiesHolder();
+        setData(holder.data, value);
+        holder.markChanged(this);
+        properties.tryUpdate(); // onPropertiesChanged()
+    }
+
+    /**
+     * Writes the current property value stored in internal data to the
+     * YAML configuration. The value is omitted when it is the default.
+     *
+     * @param data The internal data to read from
+     * @param config The configuration to write to
+     */
+    void writeDataToConfig(TrainInternalData data, ConfigurationNode config) {
+        T value = getData(data);
+        if (value == null || value.equals(this.getDefault())) {
+            this.writeToConfig(config, Optional.empty());
+        } else {
+            this.writeToConfig(config, Optional.of(value));
+        }
     }
 
     /**
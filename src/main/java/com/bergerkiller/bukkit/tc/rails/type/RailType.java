@@ -30,7 +30,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -45,6 +47,7 @@ public abstract class RailType {
     public static final RailTypePowered BOOST = new RailTypePowered(true);
     public static final RailTypeNone NONE = new RailTypeNone();
     private static final List<RailType> values = new ArrayList<RailType>();
+    private static final Map<BlockData, BlockDataDispatch> dispatchByBlockData = new IdentityHashMap<BlockData, BlockDataDispatch>();
     private final boolean _isComplexRailBlock;
 
     static {
@@ -91,6 +94,7 @@ public abstract class RailType {
      */
     public static void unregister(RailType type) {
         if (values.remove(type)) {
+            dispatchByBlockData.clear();
             RailPieceCache.reset();
         }
     }
@@ -107,6 +111,7 @@ public abstract class RailType {
         } else {
             values.add(type);
         }
+        dispatchByBlockData.clear();
         RailPieceCache.reset();
     }
 
@@ -130,16 +135,25 @@ public abstract class RailType {
     public static RailType getType(Block railsBlock) {
         if (railsBlock != null) {
             BlockData railsBlockData = WorldUtil.getBlockData(railsBlock);
-            for (RailType type : values()) {
+            BlockDataDispatch dispatch = dispatchByBlockData.get(railsBlockData);
+            if (dispatch == null) {
+                dispatch = BlockDataDispatch.create(railsBlockData);
+                if (dispatch == null) {
+                    return NONE; // Error
+                }
+                dispatchByBlockData.put(railsBlockData, dispatch);
+            }
+            for (RailType type : dispatch.complexTypes) {
                 try {
-                    if (type.isComplexRailBlock() ? type.isRail(railsBlock) : type.isRail(railsBlockData)) {
+                    if (type.isRail(railsBlock)) {
                         return type;
                     }
                 } catch (Throwable t) {
                     handleCriticalError(type, t);
-                    break;
+                    return NONE;
                 }
             }
+            return dispatch.simpleType;
         }
         return NONE;
     }
@@ -634,4 +648,47 @@ public abstract class RailType {
         return new RailsTexture();
     }
 
+
+    /**
+     * Stores the outcome of checking all registered rail types against a single
+     * type of BlockData. Simple rail types only look at the BlockData, so
+     * their outcome is stored. Complex rail types that have priority over the
+     * simple rail type found must still be checked for every block.
+     */
+    private static final class BlockDataDispatch {
+        private static final RailType[] NO_COMPLEX_TYPES = new RailType[0];
+        public final RailType[] complexTypes;
+        public final RailType simpleType;
+
+        private BlockDataDispatch(RailType[] complexTypes, RailType simpleType) {
+            this.complexTypes = complexTypes;
+            this.simpleType = simpleType;
+        }
+
+        /**
+         * Checks all registered rail types to create the dispatch for a BlockData
+         *
+         * @param blockData
+         * @return dispatch, or null if a rail type failed to check the BlockData
+         */
+        public static BlockDataDispatch create(BlockData blockData) {
+            RailType[] complexTypes = NO_COMPLEX_TYPES;
+            for (RailType type : values()) {
+                if (type.isComplexRailBlock()) {
+                    complexTypes = Arrays.copyOf(complexTypes, complexTypes.length + 1);
+                    complexTypes[complexTypes.length - 1] = type;
+                    continue;
+                }
+                try {
+                    if (type.isRail(blockData)) {
+                        return new BlockDataDispatch(complexTypes, type);
+                    }
+                } catch (Throwable t) {
+                    handleCriticalError(type, t);
+                    return null;
+                }
+            }
+            return new BlockDataDispatch(complexTypes, NONE);
+        }
+    }
 }
@@ -7,6 +7,7 @@ import com.bergerkiller.bukkit.common.utils.CommonUtil;
 import com.bergerkiller.bukkit.common.utils.WorldUtil;
 import com.bergerkiller.bukkit.tc.TrainCarts;
 import com.bergerkiller.bukkit.tc.Util;
+import com.bergerkiller.bukkit.tc.cache.RailSignCache;
 import com.bergerkiller.bukkit.tc.controller.MinecartGroup;
 import com.bergerkiller.bukkit.tc.controller.MinecartMember;
 import com.bergerkiller.bukkit.tc.controller.MinecartMemberStore;
@@ -33,6 +34,7 @@ import java.util.logging.Level;
 public abstract class SignAction {
     private static final Material SIGN_POST_TYPE = getMaterial("LEGACY_SIGN_POST");
     private static List<SignAction> actions;
+    private static int actionsVersion = 0; // Incremented when actions change, invalidates matched actions of tracked signs
 
     public static void init() {
         actions = new ArrayList<>();
@@ -68,6 +70,7 @@ public abstract class SignAction {
 
     public static void deinit() {
         actions = null;
+        actionsVersion++;
     }
 
     /**
@@ -77,8 +80,32 @@ public abstract class SignAction {
      * @return sign action, or null if not found
      */
     public static SignAction getSignAction(SignActionEvent event) {
-        for (SignAction action : actions) {
-            if (action.match(event) && action.verify(event)) {
+        RailSignCache.TrackedSign trackedSign = event.getTrackedSign();
+        if (trackedSign == null || event.getSign() == null) {
+            for (SignAction action : actions) {
+                if (action.match(event) && action.verify(event)) {
+                    return action;
+                }
+            }
+            return null;
+        }
+
+        // Matching only depends on the text on the sign, so the actions that match
+        // can be remembered for as long as the text and registered actions stay the same
+        String[] lines = event.getSign().getLines();
+        SignAction[] matched = trackedSign.getMatchedActions(actionsVersion, lines);
+        if (matched == null) {
+            List<SignAction> matchedList = new ArrayList<SignAction>(1);
+            for (SignAction action : actions) {
+                if (action.match(event)) {
+                    matchedList.add(action);
+                }
+            }
+            matched = matchedList.toArray(new SignAction[matchedList.size()]);
+            trackedSign.setMatchedActions(actionsVersion, lines, matched);
+        }
+        for (SignAction action : matched) {
+            if (action.verify(event)) {
                 return action;
             }
         }
@@ -116,13 +143,16 @@ public abstract class SignAction {
             } else {
                 actions.add(action);
             }
+            actionsVersion++;
         }
         return action;
     }
 
     public static void unregister(SignAction action) {
         if (actions == null) return;
-        actions.remove(action);
+        if (actions.remove(action)) {
+            actionsVersion++;
+        }
     }
 
     /**
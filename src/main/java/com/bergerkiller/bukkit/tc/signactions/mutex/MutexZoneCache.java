@@ -13,13 +13,16 @@ import org.bukkit.block.Sign;
 
 import com.bergerkiller.bukkit.common.bases.IntVector3;
 import com.bergerkiller.bukkit.common.collections.BlockMap;
+import com.bergerkiller.bukkit.common.utils.MathUtil;
 import com.bergerkiller.bukkit.common.utils.WorldUtil;
+import com.bergerkiller.bukkit.common.wrappers.LongHashMap;
 import com.bergerkiller.bukkit.tc.events.SignActionEvent;
 
 public class MutexZoneCache {
     private static final BlockMap<MutexZone> zones = new BlockMap<MutexZone>();
+    private static final Map<UUID, LongHashMap<List<MutexZone>>> zonesByChunk = new HashMap<>();
     private static final Map<String, MutexZoneSlot> slotsByName = new HashMap<>();
-    private static final List<MutexZoneSlot> slotsList = new ArrayList<>();
+    private static final List<MutexZoneSlot> occupiedSlots = new ArrayList<>();
 
     /**
      * Loads the mutex zones in a Chunk by iterating the signs within
@@ -35,7 +38,13 @@ public class MutexZoneCache {
     }
 
     public static void addMutexSign(SignActionEvent info) {
-        zones.put(info.getBlock(), MutexZone.fromSign(info));
+        MutexZone oldZone = zones.get(info.getBlock());
+        if (oldZone != null) {
+            removeFromChunks(oldZone);
+        }
+        MutexZone newZone = MutexZone.fromSign(info);
+        zones.put(info.getBlock(), newZone);
+        addToChunks(newZone);
     }
 
     public static void removeMutexSign(SignActionEvent info) {
@@ -49,6 +58,7 @@ public class MutexZoneCache {
             MutexZone zone = zones_iter.next();
             if (zone.sign.equals(signPos)) {
                 zones_iter.remove();
+                removeFromChunks(zone);
                 removeMutexZone(zone);
             }
         }
@@ -62,9 +72,12 @@ public class MutexZoneCache {
      * @return mutex zone, null if not found
      */
     public static MutexZone find(UUID world, IntVector3 block) {
-        for (MutexZone zone : zones.values()) {
-            if (zone.containsBlock(world, block)) {
-                return zone;
+        List<MutexZone> chunkZones = getChunkZones(world, block.x >> 4, block.z >> 4);
+        if (chunkZones != null) {
+            for (MutexZone zone : chunkZones) {
+                if (zone.containsBlock(world, block)) {
+                    return zone;
+                }
             }
         }
         return null;
@@ -81,9 +94,24 @@ public class MutexZoneCache {
      * @return True if a mutex zone is nearby
      */
     public static boolean isMutexZoneNearby(UUID world, IntVector3 block, int radius) {
-        for (MutexZone zone : zones.values()) {
-            if (zone.isNearby(world, block, radius)) {
-                return true;
+        LongHashMap<List<MutexZone>> worldZones = zonesByChunk.get(world);
+        if (worldZones == null) {
+            return false;
+        }
+        int cx_min = (block.x - radius) >> 4;
+        int cx_max = (block.x + radius) >> 4;
+        int cz_min = (block.z - radius) >> 4;
+        int cz_max = (block.z + radius) >> 4;
+        for (int cx = cx_min; cx <= cx_max; cx++) {
+            for (int cz = cz_min; cz <= cz_max; cz++) {
+                List<MutexZone> chunkZones = worldZones.get(MathUtil.longHashToLong(cx, cz));
+                if (chunkZones != null) {
+                    for (MutexZone zone : chunkZones) {
+                        if (zone.isNearby(world, block, radius)) {
+                            return true;
+                        }
+                    }
+                }
             }
         }
         return false;
@@ -99,14 +127,67 @@ public class MutexZoneCache {
      */
     public static List<MutexZone> findNearbyZones(UUID world, IntVector3 block, int radius) {
         List<MutexZone> result = new ArrayList<MutexZone>();
-        for (MutexZone zone : zones.values()) {
-            if (zone.isNearby(world, block, radius)) {
-                result.add(zone);
+        LongHashMap<List<MutexZone>> worldZones = zonesByChunk.get(world);
+        if (worldZones == null) {
+            return result;
+        }
+        int cx_min = (block.x - radius) >> 4;
+        int cx_max = (block.x + radius) >> 4;
+        int cz_min = (block.z - radius) >> 4;
+        int cz_max = (block.z + radius) >> 4;
+        for (int cx = cx_min; cx <= cx_max; cx++) {
+            for (int cz = cz_min; cz <= cz_max; cz++) {
+                List<MutexZone> chunkZones = worldZones.get(MathUtil.longHashToLong(cx, cz));
+                if (chunkZones != null) {
+                    for (MutexZone zone : chunkZones) {
+                        if (zone.isNearby(world, block, radius) && !result.contains(zone)) {
+                            result.add(zone);
+                        }
+                    }
+                }
             }
         }
         return result;
     }
 
+    private static List<MutexZone> getChunkZones(UUID world, int cx, int cz) {
+        LongHashMap<List<MutexZone>> worldZones = zonesByChunk.get(world);
+        return (worldZones == null) ? null : worldZones.get(MathUtil.longHashToLong(cx, cz));
+    }
+
+    // Registers a zone in all chunks its area overlaps with
+    private static void addToChunks(MutexZone zone) {
+        LongHashMap<List<MutexZone>> worldZones = zonesByChunk.computeIfAbsent(zone.world, u -> new LongHashMap<>());
+        for (int cx = zone.start.x >> 4; cx <= (zone.end.x >> 4); cx++) {
+            for (int cz = zone.start.z >> 4; cz <= (zone.end.z >> 4); cz++) {
+                long key = MathUtil.longHashToLong(cx, cz);
+                List<MutexZone> chunkZones = worldZones.get(key);
+                if (chunkZones == null) {
+                    chunkZones = new ArrayList<MutexZone>(1);
+                    worldZones.put(key, chunkZones);
+                }
+                chunkZones.add(zone);
+            }
+        }
+    }
+
+    // Un-registers a zone from all chunks its area overlaps with
+    private static void removeFromChunks(MutexZone zone) {
+        LongHashMap<List<MutexZone>> worldZones = zonesByChunk.get(zone.world);
+        if (worldZones == null) {
+            return;
+        }
+        for (int cx = zone.start.x >> 4; cx <= (zone.end.x >> 4); cx++) {
+            for (int cz = zone.start.z >> 4; cz <= (zone.end.z >> 4); cz++) {
+                long key = MathUtil.longHashToLong(cx, cz);
+                List<MutexZone> chunkZones = worldZones.get(key);
+                if (chunkZones != null && chunkZones.remove(zone) && chunkZones.isEmpty()) {
+                    worldZones.remove(key);
+                }
+            }
+        }
+    }
+
     /**
      * Finds or creates a new mutex zone slot by name for a certain zone
      * 
@@ -121,7 +202,6 @@ public class MutexZoneCache {
         } else {
             slot = slotsByName.computeIfAbsent(name, MutexZoneSlot::new);
         }
-        slotsList.add(slot);
         return slot.addZone(zone);
     }
 
@@ -131,18 +211,34 @@ public class MutexZoneCache {
             if (!zone.slot.isAnonymous()) {
                 slotsByName.remove(zone.slot.getName());
             }
-            slotsList.remove(zone.slot);
         }
     }
 
     /**
-     * Refreshes all mutex zone slots, releasing groups that are no longer on it
+     * Adds a slot that was entered by a group to the slots refreshed by {@link #refreshAll()}
+     *
+     * @param slot
+     */
+    protected static void addOccupiedSlot(MutexZoneSlot slot) {
+        occupiedSlots.add(slot);
+    }
+
+    /**
+     * Refreshes all mutex zone slots that have a group inside, releasing groups that are
+     * no longer on it. Slots without a group are not refreshed, they are added again
+     * when a group enters them.
      */
     public static void refreshAll() {
         // Note: done by index on purpose to avoid concurrent modification exceptions
         // They may occur if a zone loads/unloads as a result of a lever toggle/etc.
-        for (int i = 0; i < slotsList.size(); i++) {
-            slotsList.get(i).refresh(false);
+        // Slots that become occupied while refreshing are added at the end of the list.
+        for (int i = 0; i < occupiedSlots.size(); i++) {
+            MutexZoneSlot slot = occupiedSlots.get(i);
+            slot.refresh(false);
+            if (!slot.isOccupied()) {
+                slot.setListedOccupied(false);
+                occupiedSlots.remove(i--);
+            }
         }
     }
 }
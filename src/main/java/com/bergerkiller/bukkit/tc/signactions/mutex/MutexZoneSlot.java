@@ -26,6 +26,7 @@ public class MutexZoneSlot {
     private final String name;
     private MinecartGroup currentGroup = null;
     private int currentGroupTime = 0;
+    private boolean listedOccupied = false;
     private List<MutexZone> zones;
     private List<String> statements;
 
@@ -86,6 +87,24 @@ public class MutexZoneSlot {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Gets whether a group currently occupies this slot
+     *
+     * @return True if occupied
+     */
+    public boolean isOccupied() {
+        return this.currentGroup != null;
+    }
+
+    /**
+     * Sets whether this slot is listed in the occupied slots of the {@link MutexZoneCache}
+     *
+     * @param listed
+     */
+    protected void setListedOccupied(boolean listed) {
+        this.listedOccupied = listed;
+    }
+
     /**
      * Called every tick to refresh mutex zones that have a group inside.
      * If a group leaves a zone, this eventually releases that group again.
@@ -151,6 +170,10 @@ public class MutexZoneSlot {
         this.currentGroup = group;
         this.currentGroupTime = CommonUtil.getServerTicks();
         this.setLevers(true);
+        if (!this.listedOccupied) {
+            this.listedOccupied = true;
+            MutexZoneCache.addOccupiedSlot(this);
+        }
         return true;
     }
 
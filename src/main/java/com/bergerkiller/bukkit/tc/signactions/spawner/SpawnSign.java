@@ -210,6 +210,16 @@ public class SpawnSign {
         }
     }
 
+    /**
+     * Gets whether chunks are still kept loaded after a recent spawn, and will be
+     * freed by {@link #loadChunksAsyncResetAuto()}
+     *
+     * @return True if chunks are still to be freed
+     */
+    public boolean isFreeingChunks() {
+        return this.ticksUntilFreeing > 0;
+    }
+
     private void addChunk(int x, int z) {
         World world = this.getWorld();
         if (world == null) {
@@ -258,6 +268,7 @@ public class SpawnSign {
         try (Timings t = TCTimings.SIGNACTION_SPAWN.start()) {
             // Keep the area loaded for 2 more ticks, allowing the train to activate signs
             this.ticksUntilFreeing = 2;
+            TrainCarts.plugin.getSpawnSignManager().notifySpawned(this);
 
             // Ensure all chunks we may need are loaded (getChunk())
             World world = sign.getWorld();
@@ -6,7 +6,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -14,9 +17,9 @@ import com.bergerkiller.bukkit.common.BlockLocation;
 import com.bergerkiller.bukkit.common.Task;
 import com.bergerkiller.bukkit.common.collections.BlockMap;
 import com.bergerkiller.bukkit.common.config.DataReader;
-import com.bergerkiller.bukkit.common.config.DataWriter;
 import com.bergerkiller.bukkit.tc.TrainCarts;
 import com.bergerkiller.bukkit.tc.events.SignActionEvent;
+import com.bergerkiller.bukkit.tc.utils.AsyncDataWriter;
 
 /**
  * Tracks all the spawn signs globally on the server, and tracks the regular
@@ -29,6 +32,7 @@ public class SpawnSignManager {
     private final UpdateTask updateTask;
     private final BlockMap<SpawnSign> signs = new BlockMap<SpawnSign>();
     private List<SpawnSign> cachedSortedSigns = null; // when null, is re-sorted
+    private final Set<SpawnSign> freeingSigns = new HashSet<SpawnSign>(); // spawned recently, chunks still loaded
     private boolean hasChanges = false; // for autosave
 
     public SpawnSignManager(TrainCarts plugin) {
@@ -64,14 +68,14 @@ public class SpawnSignManager {
         if (autosave && !hasChanges) {
             return;
         }
-        new DataWriter(filename) {
+        new AsyncDataWriter(filename) {
             public void write(DataOutputStream stream) throws IOException {
                 stream.writeInt(SpawnSignManager.this.signs.size());
                 for (SpawnSign sign : SpawnSignManager.this.signs.values()) {
                     sign.write(stream);
                 }
             }
-        }.write();
+        }.write(autosave);
         hasChanges = false;
     }
 
@@ -80,6 +84,7 @@ public class SpawnSignManager {
             old_sign.loadChunksAsyncReset();
         }
         this.signs.clear();
+        this.freeingSigns.clear();
         this.cachedSortedSigns = null;
     }
 
@@ -97,6 +102,7 @@ public class SpawnSignManager {
     public void remove(SignActionEvent signEvent) {
         SpawnSign removed = this.signs.remove(signEvent.getBlock());
         if (removed != null) {
+            this.freeingSigns.remove(removed);
             removed.loadChunksAsyncReset();
             this.notifyChanged();
         }
@@ -105,6 +111,7 @@ public class SpawnSignManager {
     public void remove(SpawnSign sign) {
         SpawnSign removed = this.signs.remove(sign.getLocation());
         if (removed != null) {
+            this.freeingSigns.remove(removed);
             removed.loadChunksAsyncReset();
             this.notifyChanged();
         }
@@ -138,6 +145,16 @@ public class SpawnSignManager {
         this.cachedSortedSigns = null;
     }
 
+    /**
+     * Tells the manager that a spawn sign spawned a train, and keeps chunks loaded
+     * that must be freed again a few ticks later.
+     *
+     * @param sign that spawned a train
+     */
+    public void notifySpawned(SpawnSign sign) {
+        this.freeingSigns.add(sign);
+    }
+
     private class UpdateTask extends Task {
 
         public UpdateTask(JavaPlugin plugin) {
@@ -147,10 +164,27 @@ public class SpawnSignManager {
         @Override
         public void run() {
             long time = System.currentTimeMillis();
+
+            // Free the chunks kept loaded for signs that spawned recently, unless they spawn again soon
+            if (!freeingSigns.isEmpty()) {
+                Iterator<SpawnSign> iter = freeingSigns.iterator();
+                while (iter.hasNext()) {
+                    SpawnSign sign = iter.next();
+                    if (sign.getRemaining(time) > SPAWN_LOAD_DEBOUNCE) {
+                        sign.loadChunksAsyncResetAuto();
+                        if (!sign.isFreeingChunks()) {
+                            iter.remove();
+                        }
+                    }
+                }
+            }
+
+            // Signs are sorted by when they spawn next. Once a sign is found that does not
+            // have to warm up yet, none of the signs after it have to either.
             for (SpawnSign pending : getSigns()) {
                 long remainingMillis = pending.getRemaining(time);
-                if (remainingMillis > SPAWN_LOAD_DEBOUNCE) {
-                    pending.loadChunksAsyncResetAuto();
+                if (remainingMillis > SPAWN_WARMUP_TIME) {
+                    break;
                 } else if (remainingMillis == 0) {
                     pending.spawn();
                     pending.nextSpawnTime();
@@ -0,0 +1,180 @@
+package com.bergerkiller.bukkit.tc.statements;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.bergerkiller.bukkit.tc.TCConfig;
+import com.bergerkiller.bukkit.tc.controller.MinecartGroup;
+import com.bergerkiller.bukkit.tc.controller.MinecartMember;
+import com.bergerkiller.bukkit.tc.events.SignActionEvent;
+
+/**
+ * A statement text that has been parsed once, with the statements that match it
+ * looked up in advance. Evaluating it does not have to parse the text or probe
+ * all registered statements again. Compiled statements are cached by text,
+ * with the least recently used ones removed when the cache grows too large.
+ */
+final class CompiledStatement {
+    private static final int CACHE_SIZE = 1024;
+    private static final Map<String, CompiledStatement> cache = createCache();
+    private static final Map<String, CompiledStatement> logicCache = createCache();
+    private final boolean inverted;
+    private final boolean isLogicAnd;
+    private final String text;
+    private final String[] array;
+    private final Statement[] matched;
+    private final boolean[] matchedArray;
+
+    private CompiledStatement(boolean inverted, boolean isLogicAnd, String text, String[] array, Statement[] matched, boolean[] matchedArray) {
+        this.inverted = inverted;
+        this.isLogicAnd = isLogicAnd;
+        this.text = text;
+        this.array = array;
+        this.matched = matched;
+        this.matchedArray = matchedArray;
+    }
+
+    /**
+     * Gets whether this statement is combined with the statements before it using
+     * AND-logic (true) or OR-logic (false). Only used for statements compiled with
+     * {@link #compileLogic(String)}.
+     *
+     * @return True if AND-logic is used, False for OR-logic
+     */
+    public boolean isLogicAnd() {
+        return this.isLogicAnd;
+    }
+
+    /**
+     * Evaluates this statement. See {@link Statement#has(MinecartMember, MinecartGroup, String, SignActionEvent)}.
+     *
+     * @param member to use, or null to use group
+     * @param group  to use, or null to use member
+     * @param event  to parse
+     * @return True if successful, False if not
+     */
+    public boolean has(MinecartMember<?> member, MinecartGroup group, SignActionEvent event) {
+        for (int i = 0; i < this.matched.length; i++) {
+            Statement statement = this.matched[i];
+            if (event == null && statement.requiredEvent()) {
+                continue;
+            }
+            if (this.matchedArray[i]) {
+                if (member != null) {
+                    return statement.handleArray(member, this.array.clone(), event) != this.inverted;
+                } else if (group != null) {
+                    return statement.handleArray(group, this.array.clone(), event) != this.inverted;
+                } else if (!statement.requiresTrain()) {
+                    return statement.handleArray((MinecartMember<?>) null, this.array.clone(), event) != this.inverted;
+                }
+            } else {
+                if (member != null) {
+                    return statement.handle(member, this.text, event) != this.inverted;
+                } else if (group != null) {
+                    return statement.handle(group, this.text, event) != this.inverted;
+                } else if (!statement.requiresTrain()) {
+                    return statement.handle((MinecartMember<?>) null, this.text, event) != this.inverted;
+                }
+            }
+        }
+        return this.inverted;
+    }
+
+    /**
+     * Compiles statement text, or retrieves a previously compiled statement from cache
+     *
+     * @param text Statement text
+     * @return compiled statement
+     */
+    public static CompiledStatement compile(String text) {
+        synchronized (cache) {
+            return cache.computeIfAbsent(text, t -> create(t, true));
+        }
+    }
+
+    /**
+     * Compiles statement text that may be preceded by a & or | to indicate the logic
+     * to use when combining it with previous statements. Retrieves a previously
+     * compiled statement from cache if available.
+     *
+     * @param text Statement text
+     * @return compiled statement
+     */
+    public static CompiledStatement compileLogic(String text) {
+        synchronized (logicCache) {
+            return logicCache.computeIfAbsent(text, t -> {
+                if (t.startsWith("&")) {
+                    return create(t.substring(1), true);
+                } else if (t.startsWith("|")) {
+                    return create(t.substring(1), false);
+                } else {
+                    return create(t, true);
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes all compiled statements from the cache. Must be called when statements
+     * are registered, or statement shortcuts change.
+     */
+    public static void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+        synchronized (logicCache) {
+            logicCache.clear();
+        }
+    }
+
+    private static CompiledStatement create(String text, boolean isLogicAnd) {
+        boolean inv = false;
+        text = TCConfig.statementShortcuts.replace(text);
+        while (text.startsWith("!")) {
+            text = text.substring(1);
+            inv = !inv;
+        }
+        if (text.isEmpty()) {
+            return new CompiledStatement(inv, isLogicAnd, text, null, new Statement[0], new boolean[0]);
+        }
+
+        String lowerText = text.toLowerCase();
+        int idx = lowerText.indexOf('@');
+        String arrayText = idx == -1 ? null : lowerText.substring(0, idx);
+        String[] array = idx == -1 ? null : Statement.parseArray(text.substring(idx + 1));
+
+        // Find all statements that match, in the order they are evaluated
+        // Which one is used depends on whether an event/train is available
+        List<Statement> matched = new ArrayList<Statement>(2);
+        List<Boolean> matchedArray = new ArrayList<Boolean>(2);
+        for (Statement statement : Statement.getStatements()) {
+            if (arrayText != null && statement.matchArray(arrayText)) {
+                matched.add(statement);
+                matchedArray.add(Boolean.TRUE);
+            } else if (statement.match(lowerText)) {
+                matched.add(statement);
+                matchedArray.add(Boolean.FALSE);
+            }
+        }
+
+        boolean[] matchedArrayArr = new boolean[matchedArray.size()];
+        for (int i = 0; i < matchedArrayArr.length; i++) {
+            matchedArrayArr[i] = matchedArray.get(i).booleanValue();
+        }
+        return new CompiledStatement(inv, isLogicAnd, text, array,
+                matched.toArray(new Statement[matched.size()]), matchedArrayArr);
+    }
+
+    private static Map<String, CompiledStatement> createCache() {
+        return new LinkedHashMap<String, CompiledStatement>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledStatement> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+    }
+}
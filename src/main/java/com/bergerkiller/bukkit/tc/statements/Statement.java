@@ -1,6 +1,5 @@
 package com.bergerkiller.bukkit.tc.statements;
 
-import com.bergerkiller.bukkit.tc.TCConfig;
 import com.bergerkiller.bukkit.tc.controller.MinecartGroup;
 import com.bergerkiller.bukkit.tc.controller.MinecartMember;
 import com.bergerkiller.bukkit.tc.events.SignActionEvent;
@@ -42,6 +41,24 @@ public abstract class Statement {
 
     public static void deinit() {
         statements.clear();
+        CompiledStatement.clearCache();
+    }
+
+    /**
+     * Clears all statement texts that were compiled and cached. Must be called
+     * when the statement shortcuts change.
+     */
+    public static void clearCompiledStatements() {
+        CompiledStatement.clearCache();
+    }
+
+    /**
+     * Gets all registered statements, in the order in which they are matched
+     *
+     * @return statements
+     */
+    static List<Statement> getStatements() {
+        return statements;
     }
 
     public static <T extends Statement> T register(T statement) {
@@ -60,6 +77,7 @@ public abstract class Statement {
         }
 
         statements.add(index, statement);
+        CompiledStatement.clearCache();
         return statement;
     }
 
@@ -83,42 +101,7 @@ public abstract class Statement {
      * @return True if successful, False if not
      */
     public static boolean has(MinecartMember<?> member, MinecartGroup group, String text, SignActionEvent event) {
-        boolean inv = false;
-        text = TCConfig.statementShortcuts.replace(text);
-        while (text.startsWith("!")) {
-            text = text.substring(1);
-            inv = !inv;
-        }
-        if (text.isEmpty()) {
-            return inv;
-        }
-        String lowerText = text.toLowerCase();
-        int idx = lowerText.indexOf('@');
-        String arrayText = idx == -1 ? null : lowerText.substring(0, idx);
-        String[] array = idx == -1 ? null : parseArray(text.substring(idx + 1));
-        for (Statement statement : statements) {
-            if (event == null && statement.requiredEvent()) {
-                continue;
-            }
-            if (arrayText != null && statement.matchArray(arrayText)) {
-                if (member != null) {
-                    return statement.handleArray(member, array, event) != inv;
-                } else if (group != null) {
-                    return statement.handleArray(group, array, event) != inv;
-                } else if (!statement.requiresTrain()) {
-                    return statement.handleArray((MinecartMember<?>) null, array, event) != inv;
-                }
-            } else if (statement.match(lowerText)) {
-                if (member != null) {
-                    return statement.handle(member, text, event) != inv;
-                } else if (group != null) {
-                    return statement.handle(group, text, event) != inv;
-                } else if (!statement.requiresTrain()) {
-                    return statement.handle((MinecartMember<?>) null, text, event) != inv;
-                }
-            }
-        }
-        return inv;
+        return CompiledStatement.compile(text).has(member, group, event);
     }
 
     public static boolean hasMultiple(MinecartMember<?> member, Iterable<String> statementTexts, SignActionEvent event) {
@@ -148,16 +131,9 @@ public abstract class Statement {
         boolean match = true;
         for (String statementText : statementTexts) {
             if (!statementText.isEmpty()) {
-                boolean isLogicAnd = true;
-                if (statementText.startsWith("&")) {
-                    isLogicAnd = true;
-                    statementText = statementText.substring(1);
-                } else if (statementText.startsWith("|")) {
-                    isLogicAnd = false;
-                    statementText = statementText.substring(1);
-                }
-                boolean result = Statement.has(member, group, statementText, event);
-                if (isLogicAnd) {
+                CompiledStatement statement = CompiledStatement.compileLogic(statementText);
+                boolean result = statement.has(member, group, event);
+                if (statement.isLogicAnd()) {
                     match &= result;
                 } else {
                     match |= result;
@@ -0,0 +1,157 @@
+package com.bergerkiller.bukkit.tc.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.zip.DeflaterOutputStream;
+
+import com.bergerkiller.bukkit.tc.TrainCarts;
+
+/**
+ * Writes data to a file like a DataWriter does, but only encodes the data on the
+ * calling (main) thread. Compression and writing the file to disk is done on a
+ * background thread, so that autosaving does not stall the server tick.<br>
+ * <br>
+ * The data is first written to a temporary file, which is then moved to replace
+ * the original file. This makes sure the file is never left half-written. All files
+ * are written in the order they were submitted, by a single background thread.
+ */
+public abstract class AsyncDataWriter {
+    private static ExecutorService executor = null;
+    private final File file;
+    private final boolean compressed;
+
+    public AsyncDataWriter(String filename) {
+        this(filename, false);
+    }
+
+    public AsyncDataWriter(String filename, boolean compressed) {
+        this.file = new File(filename);
+        this.compressed = compressed;
+    }
+
+    /**
+     * Writes the data to save to the stream. Is called on the thread that calls
+     * {@link #write(boolean)}.
+     *
+     * @param stream Stream to write to
+     * @throws IOException
+     */
+    public abstract void write(DataOutputStream stream) throws IOException;
+
+    /**
+     * Encodes the data and writes it to file. When async, the data is compressed
+     * and written to file on a background thread. Otherwise this method waits
+     * until the file is written, including any earlier writes that are still pending.
+     *
+     * @param async Whether to write the file in the background
+     */
+    public void write(boolean async) {
+        long startTime = System.nanoTime();
+        final byte[] data;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream stream = new DataOutputStream(bytes)) {
+                this.write(stream);
+            }
+            data = bytes.toByteArray();
+        } catch (Throwable t) {
+            TrainCarts.plugin.getLogger().log(Level.SEVERE, "Failed to save " + this.file.getName(), t);
+            return;
+        }
+        final long encodeTime = System.nanoTime() - startTime;
+
+        Future<?> future = getExecutor().submit(() -> writeToFile(data, encodeTime));
+        if (!async) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException ex) {
+                TrainCarts.plugin.getLogger().log(Level.SEVERE, "Failed to save " + this.file.getName(), ex.getCause());
+            }
+        }
+    }
+
+    private void writeToFile(byte[] data, long encodeTime) {
+        long startTime = System.nanoTime();
+        File tempFile = new File(this.file.getPath() + ".tmp");
+        try {
+            File dir = this.file.getAbsoluteFile().getParentFile();
+            if (dir != null && !dir.exists()) {
+                dir.mkdirs();
+            }
+
+            try (FileOutputStream fileStream = new FileOutputStream(tempFile)) {
+                OutputStream stream = this.compressed ? new DeflaterOutputStream(fileStream) : fileStream;
+                stream.write(data);
+                if (stream instanceof DeflaterOutputStream) {
+                    ((DeflaterOutputStream) stream).finish();
+                }
+                stream.flush();
+                fileStream.getFD().sync();
+            }
+
+            try {
+                Files.move(tempFile.toPath(), this.file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (Throwable t) {
+            TrainCarts.plugin.getLogger().log(Level.SEVERE, "Failed to save " + this.file.getName(), t);
+            tempFile.delete();
+            return;
+        }
+
+        long writeTime = System.nanoTime() - startTime;
+        TrainCarts.plugin.getLogger().log(Level.FINE, "Saved " + this.file.getName() +
+                " (" + data.length + " bytes): encoding took " + (encodeTime / 1000000.0) +
+                " ms, writing took " + (writeTime / 1000000.0) + " ms");
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "TrainCarts-DataWriter");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Waits for all pending writes to complete and stops the background thread.
+     * Called when the plugin disables.
+     */
+    public static void shutdown() {
+        ExecutorService oldExecutor;
+        synchronized (AsyncDataWriter.class) {
+            oldExecutor = executor;
+            executor = null;
+        }
+        if (oldExecutor != null) {
+            oldExecutor.shutdown();
+            try {
+                if (!oldExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                    TrainCarts.plugin.getLogger().warning("Timed out waiting for data files to be saved");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -32,6 +32,7 @@ public class ChunkArea {
     private final List<OwnedChunk> all_chunks = new ArrayList<OwnedChunk>();
     private final List<OwnedChunk> removed_chunks = new ArrayList<OwnedChunk>();
     private final List<OwnedChunk> added_chunks = new ArrayList<OwnedChunk>();
+    private boolean distance_changed = false;
 
     /**
      * Clears all chunks stores inside this chunk area, without handling events for them.
@@ -46,6 +47,7 @@ public class ChunkArea {
         this.all_chunks.clear();
         this.removed_chunks.clear();
         this.added_chunks.clear();
+        this.distance_changed = false;
     }
 
     /**
@@ -60,6 +62,19 @@ public class ChunkArea {
         this.removed_chunks.clear();
         this.added_chunks.clear();
 
+        // Fast path: the minecarts are still inside the same chunks as before. This is
+        // nearly always the case, in particular while doing multiple physics steps per tick.
+        if (this.current_world == world && this.hasSameCenters(coordinates)) {
+            if (this.distance_changed) {
+                this.distance_changed = false;
+                for (OwnedChunk owned : this.all_chunks) {
+                    owned.distance_previous = owned.distance;
+                }
+            }
+            return;
+        }
+        this.distance_changed = true;
+
         // When world changes, perform a full reset
         if (this.current_world != world) {
             this.current_world = world;
@@ -136,6 +151,30 @@ public class ChunkArea {
         }
     }
 
+    private boolean hasSameCenters(LongHashSet coordinates) {
+        if (coordinates.size() != this.added_chunk_centers.size()) {
+            return false;
+        }
+        LongHashSet.LongIterator iter = coordinates.longIterator();
+        while (iter.hasNext()) {
+            if (!this.added_chunk_centers.contains(iter.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets whether the distance of chunks to the minecarts could have changed during
+     * the last {@link #refresh(World, LongHashSet)}. If this returns false, the previous
+     * distance of all chunks is the same as the current distance.
+     *
+     * @return True if chunk distances could have changed
+     */
+    public boolean isDistanceChanged() {
+        return this.distance_changed;
+    }
+
     /**
      * Adds all the chunks kept loaded inside this chunk area to a list, preventing them
      * from unloading again. All the forced chunks obtained should be closed by the caller
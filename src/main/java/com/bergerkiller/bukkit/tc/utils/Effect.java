@@ -83,6 +83,20 @@ public class Effect {
         play(location, null);
     }
 
+    /**
+     * Plays the effects at a location for all the players specified. Can be used
+     * to play effects for players already known to be nearby, such as the viewers
+     * of a cart, instead of for everyone nearby.
+     *
+     * @param location
+     * @param players Players to play the effects for
+     */
+    public void playForPlayers(Location location, Iterable<Player> players) {
+        for (Player player : players) {
+            play(location, player);
+        }
+    }
+
     /**
      * Plays the effects at a location for a player. If the player specified is
      * null, then it is played for everyone nearby.
@@ -164,7 +178,6 @@ public class Effect {
             } else {
                 location.getWorld().playEffect(location, effect, data);
             }
-            location.getWorld().playEffect(location, effect, data);
         } catch (Throwable ignored) {
         }
     }
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import com.bergerkiller.bukkit.tc.cache.RailMemberCache;
+import com.bergerkiller.bukkit.tc.cache.RailPieceCache;
 import com.bergerkiller.bukkit.tc.controller.MinecartGroupStore;
 import com.bergerkiller.bukkit.tc.controller.MinecartMember;
 import com.bergerkiller.bukkit.tc.controller.components.RailJunction;
@@ -48,6 +49,7 @@ public class RailJunctionSwitcher {
         // Switch the rails, permanently altering the logic
         // Also notify a physics change, so trains recalculate things
         MinecartGroupStore.notifyPhysicsChange();
+        RailPieceCache.notifyTrackChange(this.rail.block());
         this.rail.type().switchJunction(this.rail.block(), from, to);
 
         // Move all minecarts that are currently on this rail to the new junction path.
@@ -12,6 +12,7 @@ import com.bergerkiller.bukkit.tc.controller.type.MinecartMemberChest;
 import com.bergerkiller.bukkit.tc.events.SignActionEvent;
 import com.bergerkiller.bukkit.tc.itemanimation.ItemAnimatedInventory;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.*;
 import org.bukkit.inventory.*;
 
@@ -23,6 +24,10 @@ import java.util.Comparator;
  */
 public class TransferSignUtil {
     private static final HashSet<InventoryHolder> chestsBuffer = new HashSet<>();
+    private static final int CONTAINER_CACHE_MAX_AGE = 100; // Ticks
+    private static final int CONTAINER_CACHE_MAX_SIZE = 1024;
+    private static final Map<ContainerArea, List<FoundBlock>> containerCache = new HashMap<>();
+    private static int containerCacheTime = 0;
 
     public static Inventory getInventory(SignActionEvent info) {
         if (info.isCartSign()) {
@@ -194,7 +199,63 @@ public class TransferSignUtil {
         } else if (FaceUtil.isAlongZ(dir)) {
             radZ = 0;
         }
-        List<BlockState> states = new ArrayList<>(BlockUtil.getBlockStates(centerBlock, radX, radY, radZ));
+
+        // Find the (sorted) block states in the area, re-using a previous search if possible
+        ContainerArea area = new ContainerArea(centerBlock, radX, radY, radZ, radWidth < 0, radHeight < 0);
+        List<FoundBlock> found = getContainerBlocks(area);
+
+        // Obtain the live block states of these blocks
+        // Skip blocks in chunks that have since unloaded, or that changed type since they were found
+        List<BlockState> states = new ArrayList<>(found.size());
+        for (FoundBlock foundBlock : found) {
+            Block block = foundBlock.block;
+            if (WorldUtil.isLoaded(block.getWorld(), block.getX() >> 4, block.getZ() >> 4) &&
+                block.getType() == foundBlock.type
+            ) {
+                states.add(block.getState());
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Discards the container blocks found by previous sign activations in areas that
+     * include a block. Must be called when blocks are placed or broken, as containers
+     * may have been added or removed.
+     *
+     * @param block The block that was placed or broken
+     */
+    public static void notifyBlockChange(Block block) {
+        if (!containerCache.isEmpty()) {
+            containerCache.keySet().removeIf(area -> area.isNear(block));
+        }
+    }
+
+    private static List<FoundBlock> getContainerBlocks(ContainerArea area) {
+        // Periodically discard everything, in case containers changed without an event
+        int serverTicks = CommonUtil.getServerTicks();
+        if ((serverTicks - containerCacheTime) > CONTAINER_CACHE_MAX_AGE || containerCache.size() > CONTAINER_CACHE_MAX_SIZE) {
+            containerCache.clear();
+        }
+        if (containerCache.isEmpty()) {
+            containerCacheTime = serverTicks;
+        }
+
+        List<FoundBlock> blocks = containerCache.get(area);
+        if (blocks == null) {
+            blocks = findContainerBlocks(area);
+
+            // Only store when all chunks are loaded, otherwise containers in unloaded chunks are missing
+            if (area.isLoaded()) {
+                containerCache.put(area, blocks);
+            }
+        }
+        return blocks;
+    }
+
+    private static List<FoundBlock> findContainerBlocks(final ContainerArea area) {
+        final Block centerBlock = area.center;
+        List<BlockState> states = new ArrayList<>(BlockUtil.getBlockStates(centerBlock, area.radX, area.radY, area.radZ));
 
         // Get rid of twice-stored double chests
         try {
@@ -220,8 +281,8 @@ public class TransferSignUtil {
         }
 
         // Sort the resulting states based on distance from the center
-        final boolean widthInv = radWidth < 0;
-        final boolean heightInv = radHeight < 0;
+        final boolean widthInv = area.widthInv;
+        final boolean heightInv = area.heightInv;
         Collections.sort(states, new Comparator<BlockState>() {
 
             public int getIndex(BlockState state) {
@@ -238,7 +299,11 @@ public class TransferSignUtil {
             }
         });
 
-        return states;
+        List<FoundBlock> blocks = new ArrayList<>(states.size());
+        for (BlockState state : states) {
+            blocks.add(new FoundBlock(state.getBlock(), state.getType()));
+        }
+        return blocks;
     }
 
     /**
@@ -400,4 +465,93 @@ public class TransferSignUtil {
             return ItemUtil.transfer(from, to, itemParser, itemParser.getAmount());
         }
     }
+
+    /**
+     * A block found while searching an area, and the type it had at that time
+     */
+    private static final class FoundBlock {
+        public final Block block;
+        public final Material type;
+
+        public FoundBlock(Block block, Material type) {
+            this.block = block;
+            this.type = type;
+        }
+    }
+
+    /**
+     * Area around a rails block in which a transfer sign looks for containers
+     */
+    private static final class ContainerArea {
+        public final Block center;
+        public final int radX, radY, radZ;
+        public final boolean widthInv, heightInv;
+
+        public ContainerArea(Block center, int radX, int radY, int radZ, boolean widthInv, boolean heightInv) {
+            this.center = center;
+            this.radX = radX;
+            this.radY = radY;
+            this.radZ = radZ;
+            this.widthInv = widthInv;
+            this.heightInv = heightInv;
+        }
+
+        /**
+         * Gets whether all chunks this area covers are loaded
+         *
+         * @return True if all chunks are loaded
+         */
+        public boolean isLoaded() {
+            World world = this.center.getWorld();
+            int minCX = (this.center.getX() - this.radX) >> 4;
+            int maxCX = (this.center.getX() + this.radX) >> 4;
+            int minCZ = (this.center.getZ() - this.radZ) >> 4;
+            int maxCZ = (this.center.getZ() + this.radZ) >> 4;
+            for (int cx = minCX; cx <= maxCX; cx++) {
+                for (int cz = minCZ; cz <= maxCZ; cz++) {
+                    if (!WorldUtil.isLoaded(world, cx, cz)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Gets whether a block is inside this area, or right next to it. Blocks next
+         * to the area are included, as placing a chest there can turn a chest inside
+         * the area into a double chest.
+         *
+         * @param block Block to check
+         * @return True if the block is inside or next to this area
+         */
+        public boolean isNear(Block block) {
+            return block.getWorld() == this.center.getWorld() &&
+                   Math.abs(block.getX() - this.center.getX()) <= (this.radX + 1) &&
+                   Math.abs(block.getY() - this.center.getY()) <= (this.radY + 1) &&
+                   Math.abs(block.getZ() - this.center.getZ()) <= (this.radZ + 1);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.center.hashCode() + 31 * (this.radX + 31 * (this.radY + 31 * this.radZ));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            } else if (o instanceof ContainerArea) {
+                ContainerArea other = (ContainerArea) o;
+                return this.center.equals(other.center) &&
+                       this.radX == other.radX &&
+                       this.radY == other.radY &&
+                       this.radZ == other.radZ &&
+                       this.widthInv == other.widthInv &&
+                       this.heightInv == other.heightInv;
+            } else {
+                return false;
+            }
+        }
+    }
 }
@@ -0,0 +1,86 @@
+package com.bergerkiller.bukkit.tc;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.bergerkiller.bukkit.tc.commands.selector.SelectorCondition;
+
+/**
+ * Tests the text prefixes of selector conditions, and looking up the
+ * values starting with such a prefix in a sorted map.
+ */
+public class SelectorIndexTest {
+
+    @Test
+    public void testTextPrefixExact() {
+        assertEquals("train1", SelectorCondition.parse("name", "train1").getTextPrefix());
+        assertEquals("12", SelectorCondition.parse("name", "12").getTextPrefix());
+    }
+
+    @Test
+    public void testTextPrefixWildcard() {
+        assertEquals("train", SelectorCondition.parse("name", "train*").getTextPrefix());
+        assertEquals("tr", SelectorCondition.parse("name", "tr*in").getTextPrefix());
+        assertEquals("tr", SelectorCondition.parse("name", "tr*in*").getTextPrefix());
+        assertNull(SelectorCondition.parse("name", "*train").getTextPrefix());
+        assertNull(SelectorCondition.parse("name", "*").getTextPrefix());
+    }
+
+    @Test
+    public void testTextPrefixInverted() {
+        assertNull(SelectorCondition.parse("name", "!train1").getTextPrefix());
+        assertNull(SelectorCondition.parse("name", "!train*").getTextPrefix());
+    }
+
+    @Test
+    public void testTextPrefixAnyOf() {
+        assertNull(SelectorCondition.parse("name", "train1..train2").getTextPrefix());
+        assertNull(SelectorCondition.parse("name", "a..b..c").getTextPrefix());
+        assertNull(SelectorCondition.parse("name", "1..5").getTextPrefix());
+    }
+
+    @Test
+    public void testPrefixSubMap() {
+        TreeMap<String, Integer> map = new TreeMap<String, Integer>();
+        map.put("cart", 1);
+        map.put("train", 2);
+        map.put("train1", 3);
+        map.put("train12", 4);
+        map.put("traio", 5);
+        map.put("trai", 6);
+        map.put("zebra", 7);
+
+        assertEquals(Arrays.asList("train", "train1", "train12"),
+                new ArrayList<String>(Util.getPrefixSubMap(map, "train").keySet()));
+        assertEquals(Arrays.asList("train1", "train12"),
+                new ArrayList<String>(Util.getPrefixSubMap(map, "train1").keySet()));
+        assertEquals(Arrays.asList("trai", "train", "train1", "train12", "traio"),
+                new ArrayList<String>(Util.getPrefixSubMap(map, "trai").keySet()));
+        assertTrue(Util.getPrefixSubMap(map, "bus").isEmpty());
+        assertTrue(Util.getPrefixSubMap(map, "train123").isEmpty());
+        assertEquals(map.keySet(), Util.getPrefixSubMap(map, "").keySet());
+    }
+
+    @Test
+    public void testPrefixSubMapMaxCharacter() {
+        String max = String.valueOf(Character.MAX_VALUE);
+        TreeMap<String, Integer> map = new TreeMap<String, Integer>();
+        map.put("a", 1);
+        map.put("a" + max, 2);
+        map.put("a" + max + "b", 3);
+        map.put("b", 4);
+        map.put(max + "a", 5);
+
+        assertEquals(Arrays.asList("a", "a" + max, "a" + max + "b"),
+                new ArrayList<String>(Util.getPrefixSubMap(map, "a").keySet()));
+        assertEquals(Arrays.asList("a" + max, "a" + max + "b"),
+                new ArrayList<String>(Util.getPrefixSubMap(map, "a" + max).keySet()));
+        assertEquals(Arrays.asList(max + "a"),
+                new ArrayList<String>(Util.getPrefixSubMap(map, max).keySet()));
+    }
+}
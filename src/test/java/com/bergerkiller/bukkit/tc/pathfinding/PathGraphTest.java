@@ -0,0 +1,82 @@
+package com.bergerkiller.bukkit.tc.pathfinding;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.bergerkiller.bukkit.common.BlockLocation;
+
+/**
+ * Tests finding routes in a path graph snapshot
+ */
+public class PathGraphTest {
+
+    @Test
+    public void testShortestRoute() {
+        PathNode a = node(0, 0);
+        PathNode b = node(10, 0);
+        PathNode c = node(0, 10);
+        PathNode d = node(20, 0);
+        connect(a, b, 10.0, "east");
+        connect(b, d, 10.0, "east");
+        connect(a, c, 5.0, "south");
+        connect(c, d, 30.0, "east");
+        connect(a, d, 50.0, "up");
+
+        PathGraph graph = PathGraph.create(Arrays.asList(a, b, c, d));
+        PathConnection[] route = graph.findRoute(a, d);
+        assertEquals(2, route.length);
+        assertEquals("east", route[0].junctionName);
+        assertSame(b, route[0].destination);
+        assertSame(d, route[1].destination);
+
+        // From c there is only a single connection to d
+        route = graph.findRoute(c, d);
+        assertEquals(1, route.length);
+        assertEquals(30.0, route[0].distance, 1e-6);
+    }
+
+    @Test
+    public void testLoopBackRoute() {
+        PathNode a = node(0, 0);
+        PathNode b = node(10, 0);
+        PathNode c = node(10, 10);
+        connect(a, b, 10.0, "east");
+        connect(b, c, 10.0, "south");
+        connect(c, a, 15.0, "west");
+
+        PathGraph graph = PathGraph.create(Arrays.asList(a, b, c));
+        PathConnection[] route = graph.findRoute(a, a);
+        assertEquals(3, route.length);
+        assertSame(b, route[0].destination);
+        assertSame(c, route[1].destination);
+        assertSame(a, route[2].destination);
+    }
+
+    @Test
+    public void testNoRoute() {
+        PathNode a = node(0, 0);
+        PathNode b = node(10, 0);
+        PathNode c = node(20, 0);
+        PathNode outside = node(30, 0);
+        connect(a, b, 10.0, "east");
+
+        PathGraph graph = PathGraph.create(Arrays.asList(a, b, c));
+        assertEquals(0, graph.findRoute(b, a).length); // One-way connection
+        assertEquals(0, graph.findRoute(a, c).length); // Not connected
+        assertEquals(0, graph.findRoute(b, b).length); // No way back
+        assertEquals(0, graph.findRoute(a, outside).length); // Not part of the graph
+        assertNotEquals(graph.getComponent(a), graph.getComponent(c));
+        assertEquals(-1, graph.getComponent(outside));
+    }
+
+    private static PathNode node(int x, int z) {
+        return new PathNode(null, new BlockLocation("world", x, 64, z));
+    }
+
+    private static void connect(PathNode from, PathNode to, double distance, String junctionName) {
+        from.getNeighbours().add(new PathConnection(to, distance, junctionName));
+    }
+}
@@ -0,0 +1,87 @@
+package com.bergerkiller.bukkit.tc.pathfinding;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.bergerkiller.bukkit.common.BlockLocation;
+
+/**
+ * Tests keeping the routes stored in a routing table up to date as the graph changes
+ */
+public class PathRoutingTableTest {
+
+    @Test
+    public void testInvalidateAfterRebuild() {
+        PathNode a = node(0, 0);
+        PathNode b = node(10, 0);
+        PathNode c = node(20, 0);
+        PathNode x = node(0, 100);
+        PathNode y = node(10, 100);
+        connect(a, b, 10.0, "east");
+        connect(b, c, 10.0, "east");
+        connect(x, y, 10.0, "east");
+        List<PathNode> nodes = new ArrayList<PathNode>(Arrays.asList(a, b, c, x, y));
+
+        PathRoutingTable table = new PathRoutingTable();
+        PathGraph graph = PathGraph.create(nodes);
+        PathConnection routeAC = table.findConnection(graph, a, c);
+        PathConnection routeXY = table.findConnection(graph, x, y);
+        assertEquals("east", routeAC.junctionName);
+        assertEquals(20.0, routeAC.distance, 1e-6);
+        assertSame(routeAC, table.findConnection(graph, a, c));
+
+        // Rebuild the graph with the nodes in a different order, which changes
+        // the index of every node, like when a new node is added to the world
+        Collections.reverse(nodes);
+        graph = PathGraph.create(nodes);
+        table.setGraph(graph);
+
+        // Change the connections of a, which must only discard the routes
+        // starting at nodes connected with it
+        table.invalidate(a);
+        connect(a, c, 5.0, "up");
+        graph = PathGraph.create(nodes);
+        table.setGraph(graph);
+
+        PathConnection newRouteAC = table.findConnection(graph, a, c);
+        assertEquals("up", newRouteAC.junctionName);
+        assertEquals(5.0, newRouteAC.distance, 1e-6);
+        assertSame(routeXY, table.findConnection(graph, x, y));
+    }
+
+    @Test
+    public void testInvalidateUnknownNode() {
+        PathNode a = node(0, 0);
+        PathNode b = node(10, 0);
+        connect(a, b, 10.0, "east");
+
+        PathRoutingTable table = new PathRoutingTable();
+        PathGraph graph = PathGraph.create(Arrays.asList(a, b));
+        PathConnection route = table.findConnection(graph, a, b);
+
+        // A node added since then was never used by the stored routes
+        PathNode added = node(20, 0);
+        table.invalidate(added);
+        assertSame(route, table.findConnection(graph, a, b));
+
+        // A node with stored routes that is no longer part of the graph discards everything
+        graph = PathGraph.create(Arrays.asList(b, added));
+        table.setGraph(graph);
+        table.invalidate(a);
+        assertNull(table.findConnection(graph, a, b));
+    }
+
+    private static PathNode node(int x, int z) {
+        return new PathNode(null, new BlockLocation("world", x, 64, z));
+    }
+
+    private static void connect(PathNode from, PathNode to, double distance, String junctionName) {
+        from.getNeighbours().add(new PathConnection(to, distance, junctionName));
+    }
+}